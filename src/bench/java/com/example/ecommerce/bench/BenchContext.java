@@ -0,0 +1,43 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.EcommerceApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Boots the application against a private in-memory H2 database for benchmarks
+public final class BenchContext {
+
+    private BenchContext() {
+    }
+
+    // Passed as command-line args so they win over application.yml
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--app.rate-limit.enabled=false")); // benchmarks drive far more traffic per client than the quotas allow
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(EcommerceApiApplication.class).run(args.toArray(String[]::new));
+    }
+
+    public static Authentication customer(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+    }
+
+    public static Authentication admin() {
+        return new UsernamePasswordAuthenticationToken("bench-admin", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ecommerce.bench;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Default bench.main: runs JMH and writes the results as JSON (target/jmh-result.json, or -Dbench.result=...)
+// so two runs can be diffed or loaded into a JMH visualizer. An explicit -rf/-rff in bench.args wins.
+public final class BenchRunner {
+
+    private BenchRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            Path result = resultFile();
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", result.toString()));
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(String[]::new));
+    }
+
+    // Runs one benchmark class at each thread count and writes every run into a single JSON file
+    public static List<RunResult> sweepThreads(Class<?> benchmark, int... threadCounts) throws RunnerException, IOException {
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(benchmark.getSimpleName())
+                    .threads(threads)
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+        Path result = resultFile();
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, result.toString()).writeOut(results);
+        System.out.println("Results written to " + result.toAbsolutePath());
+        return results;
+    }
+
+    private static Path resultFile() throws IOException {
+        Path result = Path.of(System.getProperty("bench.result", "target/jmh-result.json"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.dto.OrderRequest;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// placeOrder latency as the cart grows; should stay close to flat now that a cart is a fixed number of round trips
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartSizeBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Authentication customer;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        orderService = context.getBean(OrderService.class);
+        customer = BenchContext.customer("bench-customer");
+
+        Category category = new Category();
+        category.setName("bench");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        ProductRepository products = context.getBean(ProductRepository.class);
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setName("cart-" + i);
+            product.setPriceMinor(450);
+            product.setCurrency("USD");
+            product.setStock(Integer.MAX_VALUE);
+            product.setCategory(category);
+
+            OrderRequest.OrderItemRequest line = new OrderRequest.OrderItemRequest();
+            line.setProductId(products.save(product).getId());
+            line.setQuantity(1);
+            items.add(line);
+        }
+        request = new OrderRequest();
+        request.setItems(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object placeOrder() {
+        return orderService.placeOrder(request, customer);
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.seed.DataSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Reproducible HTTP load: logins, catalog reads and order placement in a fixed mix, against an embedded server
+// filled by the seed profile or against one that is already running (and was seeded with the same app.seed.*).
+// Prints throughput and an HdrHistogram latency breakdown per operation and writes each histogram to
+// <out>/<operation>.hgrm, so two runs can be compared percentile by percentile.
+//   mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.bench.LoadDriver -Dbench.args="mode=open rate=500"
+// args, all key=value:
+//   url=              server to load; empty boots one with the seed profile, sized by users= categories= products= orders=
+//   mode=closed       each client sends its next request as soon as the previous one answers
+//   mode=open rate=N  N requests/s in total, latency measured from the intended send time (no coordinated omission);
+//                     clients= caps the requests in flight, so keep it above rate x expected latency
+//   clients=64 duration=60 warmup=10 (seconds) seed=42 out=target/load password=password
+//   mix=token:5,list:20,category:15,browse:25,search:15,order:20 (weights)
+public final class LoadDriver {
+
+    enum Operation {
+        TOKEN, LIST, CATEGORY, BROWSE, SEARCH, ORDER
+    }
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("url", "");
+        DEFAULTS.put("mode", "closed");
+        DEFAULTS.put("clients", "64");
+        DEFAULTS.put("rate", "500");
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("mix", "token:5,list:20,category:15,browse:25,search:15,order:20");
+        DEFAULTS.put("users", "1000");
+        DEFAULTS.put("categories", "50");
+        DEFAULTS.put("products", "10000");
+        DEFAULTS.put("orders", "50000");
+        DEFAULTS.put("password", "password");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("out", "target/load");
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Map<String, String> settings;
+    private final String base;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final Operation[] schedule; // one entry per mix weight point
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> errors = new EnumMap<>(Operation.class);
+    private volatile boolean measuring;
+
+    // Discovered before the run
+    private List<Long> categoryIds;
+    private List<Long> orderableProductIds;
+    private List<String> words;
+
+    private LoadDriver(Map<String, String> settings, String base) {
+        this.settings = settings;
+        this.base = base;
+        this.schedule = schedule(settings.get("mix"));
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected one of " + DEFAULTS.keySet());
+            }
+            settings.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        System.out.println("Load settings: " + settings);
+
+        ConfigurableApplicationContext context = null;
+        String base = settings.get("url");
+        if (base.isEmpty()) {
+            long started = System.nanoTime();
+            context = BenchContext.start(
+                    "spring.profiles.active=seed",
+                    "app.seed.users=" + settings.get("users"),
+                    "app.seed.categories=" + settings.get("categories"),
+                    "app.seed.products=" + settings.get("products"),
+                    "app.seed.orders=" + settings.get("orders"),
+                    "app.seed.password=" + settings.get("password"),
+                    "app.seed.random-seed=" + settings.get("seed"));
+            base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Embedded server seeded and started in %d ms%n", (System.nanoTime() - started) / 1_000_000);
+        }
+        try {
+            LoadDriver driver = new LoadDriver(settings, base);
+            driver.discover();
+            driver.run();
+            driver.report();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    // -----------------------------
+    private void discover() throws Exception {
+        categoryIds = new ArrayList<>();
+        for (JsonNode category : getJson("/api/categories")) {
+            categoryIds.add(category.get("id").asLong());
+        }
+        orderableProductIds = new ArrayList<>();
+        Set<String> vocabulary = new LinkedHashSet<>();
+        String cursor = null;
+        int limit = Integer.parseInt(settings.get("products"));
+        int seen = 0;
+        do {
+            JsonNode page = getJson("/api/products?size=500" + (cursor != null ? "&cursor=" + encode(cursor) : ""));
+            for (JsonNode product : page.get("items")) {
+                seen++;
+                if (product.get("stock").asInt() > 100) {
+                    orderableProductIds.add(product.get("id").asLong());
+                }
+                for (String word : product.get("name").asText().toLowerCase(Locale.ROOT).split("\\s+")) {
+                    if (word.length() >= 3 && word.chars().allMatch(Character::isLetter)) {
+                        vocabulary.add(word);
+                    }
+                }
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null && seen < limit);
+        words = new ArrayList<>(vocabulary);
+
+        if (categoryIds.isEmpty() || orderableProductIds.isEmpty() || words.isEmpty()) {
+            throw new IllegalStateException("No catalog at " + base + "; start it with the seed profile or omit url=");
+        }
+        System.out.printf("Catalog: %d categories, %d products read (%d orderable), %d search words%n",
+                categoryIds.size(), seen, orderableProductIds.size(), words.size());
+    }
+
+    private void run() throws Exception {
+        int clients = Integer.parseInt(settings.get("clients"));
+        boolean open = settings.get("mode").equals("open");
+        long warmupNanos = Duration.ofSeconds(Long.parseLong(settings.get("warmup"))).toNanos();
+        long durationNanos = Duration.ofSeconds(Long.parseLong(settings.get("duration"))).toNanos();
+        // Open loop: every client owns an equal share of the rate, on a fixed schedule
+        long intervalNanos = open ? (long) (clients * 1e9 / Double.parseDouble(settings.get("rate"))) : 0;
+        long seed = Long.parseLong(settings.get("seed"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            futures.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(seed * 31 + client);
+                String username = DataSeeder.customerUsername(1 + random.nextInt(Integer.parseInt(settings.get("users"))));
+                String token = login(username);
+                long intended = start + (intervalNanos * client) / clients;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (open) {
+                        if (intended > now) {
+                            LockSupport.parkNanos(intended - now);
+                        }
+                    } else {
+                        intended = now;
+                    }
+                    if (intended >= end) {
+                        return null;
+                    }
+                    Operation operation = schedule[random.nextInt(schedule.length)];
+                    int status = send(operation, random, username, token);
+                    long latency = System.nanoTime() - intended;
+                    if (measuring) {
+                        latencies.get(operation).recordValue(latency);
+                        if (status < 200 || status >= 300) {
+                            errors.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+                        }
+                    }
+                    intended += intervalNanos;
+                }
+            }));
+        }
+        LockSupport.parkNanos(Math.max(0, measureFrom - System.nanoTime()));
+        measuring = true; // warmup requests are not recorded
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        measuring = false;
+        pool.shutdown();
+    }
+
+    private int send(Operation operation, SplittableRandom random, String username, String token) {
+        try {
+            HttpRequest request = switch (operation) {
+                case TOKEN -> tokenRequest(username);
+                case LIST -> get("/api/products?size=50");
+                case CATEGORY -> get("/api/products/category/" + pick(categoryIds, random));
+                case BROWSE -> {
+                    double minPrice = 5 + random.nextInt(30);
+                    yield get("/api/products/browse?inStock=true&sort=price&categoryId=" + pick(categoryIds, random)
+                            + (random.nextBoolean() ? "&minPrice=" + minPrice + "&maxPrice=" + minPrice * 3 : ""));
+                }
+                case SEARCH -> {
+                    String word = pick(words, random);
+                    boolean prefix = random.nextInt(4) == 0;
+                    yield get("/api/products/search?q=" + encode(prefix ? word.substring(0, 3) : word)
+                            + (prefix ? "&prefix=true" : ""));
+                }
+                case ORDER -> orderRequest(random, token);
+            };
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1; // reported as status -1
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest orderRequest(SplittableRandom random, String token) {
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            body.append(i > 0 ? "," : "")
+                    .append("{\"productId\":").append(pick(orderableProductIds, random))
+                    .append(",\"quantity\":1}");
+        }
+        body.append("]}");
+        return HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpRequest tokenRequest(String username) {
+        return HttpRequest.newBuilder(URI.create(base + "/api/auth/token?username=" + encode(username)
+                        + "&password=" + encode(settings.get("password"))))
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(tokenRequest(username), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + username + " failed: " + response.statusCode());
+        }
+        return JSON.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(get(path), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private void report() throws IOException {
+        double seconds = Long.parseLong(settings.get("duration"));
+        Path out = Path.of(settings.get("out"));
+        Files.createDirectories(out);
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+
+        System.out.printf("%n%-9s %9s %9s %8s %9s %9s %9s %9s %9s  (ms)%n",
+                "operation", "count", "req/s", "errors", "p50", "p90", "p99", "p99.9", "max");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            Map<Integer, Long> failures = new TreeMap<>();
+            errors.get(operation).forEach((status, count) -> failures.put(status, count.sum()));
+            long errorCount = failures.values().stream().mapToLong(Long::longValue).sum();
+            allErrors += errorCount;
+            printRow(operation.name().toLowerCase(Locale.ROOT), histogram, seconds, errorCount);
+            if (!failures.isEmpty()) {
+                System.out.println("          statuses " + failures);
+            }
+            write(out.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm"), histogram);
+        }
+        printRow("all", all, seconds, allErrors);
+        write(out.resolve("all.hgrm"), all);
+        System.out.println("Histograms written to " + out.toAbsolutePath());
+    }
+
+    private static void printRow(String name, Histogram histogram, double seconds, long errorCount) {
+        System.out.printf("%-9s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errorCount,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxValue() / 1e6);
+    }
+
+    // Percentile distribution in milliseconds, the format HdrHistogram's plotter reads
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static Operation[] schedule(String mix) {
+        List<Operation> schedule = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("mix has no weights: " + mix);
+        }
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
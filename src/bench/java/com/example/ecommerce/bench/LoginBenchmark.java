@@ -0,0 +1,60 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.entity.User;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issuance throughput (cached user lookup, bcrypt check, JWT signing) per bcrypt strength, with the
+// hashing pool as wide as the machine. Run main() to load every core and print logins per second per core:
+//   mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.bench.LoginBenchmark -Dbench.args=
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start(
+                "app.auth.bcrypt-strength=" + strength,
+                "app.auth.hash-threads=" + Runtime.getRuntime().availableProcessors());
+        authService = context.getBean(AuthService.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        context.getBean(UserRepository.class).save(new User(null, "bench-customer", hash, Role.ROLE_CUSTOMER));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        return authService.issueToken("bench-customer", PASSWORD).join().orElseThrow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (RunResult result : BenchRunner.sweepThreads(LoginBenchmark.class, cores)) {
+            System.out.printf("bcrypt strength %s: %.1f logins/s per core (%d cores)%n",
+                    result.getParams().getParam("strength"), result.getPrimaryResult().getScore() / cores, cores);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.entity.OrderItem;
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Order + item insert throughput. batchSize=1 reproduces the old row-at-a-time behaviour,
+// batchSize=50 is what application.yml ships with now that ids come from pooled sequences.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderInsertBenchmark {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"10"})
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object insertOrder() {
+        return transactionTemplate.execute(status -> orderRepository.save(newOrder()));
+    }
+
+    private Order newOrder() {
+        List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId((long) i + 1);
+            item.setProductName("item-" + i);
+            item.setPriceMinor(250);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        Order order = new Order();
+        order.setUsername("bench-customer");
+        order.setStatus(OrderStatus.CREATED);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setItems(items);
+        order.setTotalMinor(250L * itemsPerOrder);
+        order.setCurrency("USD");
+        return order;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.dto.OrderRequest;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.OrderIdempotency;
+import com.example.ecommerce.service.OrderIdempotency.PlacedOrder;
+import com.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end placeOrder (validation, reservation, inserts, commit) against embedded H2 with carts spread over a
+// large catalog, so threads rarely meet on a row. StockReservationBenchmark is the contended counterpart.
+// replayOrder is what a client retry with the same Idempotency-Key costs instead.
+// Run main() to sweep thread counts into one JSON file:
+//   mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.bench.PlaceOrderBenchmark -Dbench.args=
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceOrderBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int LINES = 3;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderIdempotency orderIdempotency;
+    private OrderRequest replayed;
+    private Authentication customer;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        orderService = context.getBean(OrderService.class);
+        orderIdempotency = context.getBean(OrderIdempotency.class);
+        customer = BenchContext.customer("bench-customer");
+
+        Category category = new Category();
+        category.setName("bench");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("product-" + i);
+            product.setPriceMinor(999);
+            product.setCurrency("USD");
+            product.setStock(Integer.MAX_VALUE);
+            product.setCategory(category);
+            products.add(product);
+        }
+        context.getBean(ProductRepository.class).saveAll(products).forEach(p -> productIds.add(p.getId()));
+
+        replayed = randomOrder();
+        replayOrder(); // the first call places it; every measured call is a replay
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object placeOrder() {
+        return orderService.placeOrder(randomOrder(), customer);
+    }
+
+    @Benchmark
+    public Object replayOrder() {
+        return orderIdempotency.placeOnce(customer.getName(), "bench-retry", replayed,
+                () -> new PlacedOrder(orderService.placeOrder(replayed, customer, "bench-retry"), false, false));
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchRunner.sweepThreads(PlaceOrderBenchmark.class, 1, 4, 16, 64);
+    }
+
+    // -----------------------------
+    private OrderRequest randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            OrderRequest.OrderItemRequest line = new OrderRequest.OrderItemRequest();
+            line.setProductId(productIds.get(random.nextInt(productIds.size())));
+            line.setQuantity(1 + random.nextInt(3));
+            items.add(line);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setItems(items);
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.browse.BrowsePage;
+import com.example.ecommerce.browse.BrowseQuery;
+import com.example.ecommerce.browse.ProductColumns;
+import com.example.ecommerce.browse.ProductRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Browse latency (one page + facet counts) and the cost of one admin write on the column store.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="ProductBrowseBenchmark"
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductBrowseBenchmark {
+
+    private static final int CATEGORIES = 200;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"100000", "1000000"})
+        public int products;
+
+        ProductColumns columns;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            columns = build(products);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ProductColumns build(Catalog catalog) {
+        return build(catalog.products);
+    }
+
+    // Whole catalog, id order
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public BrowsePage browseAll(Catalog catalog) {
+        return catalog.columns.browse(new BrowseQuery(null, null, null, false, BrowseQuery.Sort.ID, null, null, 50));
+    }
+
+    // One category, in stock, a price band, cheapest first
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public BrowsePage browseFiltered(Catalog catalog) {
+        long category = (catalog.next++ % CATEGORIES) + 1;
+        return catalog.columns.browse(new BrowseQuery(category, 10_000L, 50_000L, true, BrowseQuery.Sort.PRICE_ASC,
+                null, null, 50));
+    }
+
+    // One category in id order: walks that category's bitset or row list
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public BrowsePage browseCategory(Catalog catalog) {
+        long category = (catalog.next++ % CATEGORIES) + 1;
+        return catalog.columns.browse(new BrowseQuery(category, null, null, true, BrowseQuery.Sort.ID,
+                null, null, 50));
+    }
+
+    // Copy-on-write of one updated product
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public ProductColumns updateOne(Catalog catalog) {
+        long id = (catalog.next++ % catalog.products) + 1;
+        TreeMap<Long, ProductRow> change = new TreeMap<>();
+        change.put(id, new ProductRow(id, "updated " + id, "updated", 4_200, "USD", 7, (id % CATEGORIES) + 1, "c"));
+        return catalog.columns.withChanges(change);
+    }
+
+    // -----------------------------
+    private static ProductColumns build(int products) {
+        SplittableRandom random = new SplittableRandom(7);
+        ProductColumns.Builder builder = ProductColumns.builder();
+        for (int id = 1; id <= products; id++) {
+            long category = skewedCategory(random);
+            builder.add(new ProductRow(id, "product " + id, "description " + id,
+                    random.nextInt(1, 100_000), "USD", random.nextInt(10) == 0 ? 0 : random.nextInt(1, 500),
+                    category, "category " + category));
+        }
+        return builder.build();
+    }
+
+    // A few large categories and a long tail, so both bitsets and row lists get exercised
+    private static long skewedCategory(SplittableRandom random) {
+        return (long) Math.min(CATEGORIES, Math.exp(random.nextDouble() * Math.log(CATEGORIES + 1)));
+    }
+}
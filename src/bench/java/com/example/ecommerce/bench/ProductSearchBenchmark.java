@@ -0,0 +1,126 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.search.InvertedIndex;
+import com.example.ecommerce.search.SearchDocument;
+import com.example.ecommerce.search.SearchQuery;
+import com.example.ecommerce.search.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Index build time and query latency on a synthetic catalog with a skewed (Zipf-like) vocabulary.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="ProductSearchBenchmark"
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int CATEGORIES = 200;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"100000", "1000000"})
+        public int products;
+
+        String[] words;
+        InvertedIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(42);
+            words = new String[VOCABULARY];
+            for (int i = 0; i < VOCABULARY; i++) {
+                words[i] = word(random);
+            }
+            index = buildIndex(this);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Queries {
+
+        @Param({"exact", "prefix", "fuzzy"})
+        public String mode;
+
+        String[] texts;
+        int next;
+
+        // Two-term queries over the same skewed vocabulary; prefix cuts the last term to 3 letters,
+        // fuzzy swaps two of its letters
+        @Setup(Level.Trial)
+        public void setUp(Catalog catalog) {
+            SplittableRandom random = new SplittableRandom(99);
+            texts = new String[1024];
+            for (int i = 0; i < texts.length; i++) {
+                String first = catalog.words[skewed(random)];
+                String second = catalog.words[skewed(random)];
+                if (mode.equals("prefix")) {
+                    second = second.substring(0, Math.min(3, second.length()));
+                } else if (mode.equals("fuzzy") && second.length() >= 4) {
+                    char[] letters = second.toCharArray();
+                    char swap = letters[1];
+                    letters[1] = letters[2];
+                    letters[2] = swap;
+                    second = new String(letters);
+                }
+                texts[i] = first + " " + second;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public InvertedIndex build(Catalog catalog) {
+        return buildIndex(catalog);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public SearchResult query(Catalog catalog, Queries queries) {
+        String text = queries.texts[queries.next++ & (queries.texts.length - 1)];
+        return catalog.index.search(new SearchQuery(text, null, null, null,
+                queries.mode.equals("prefix"), queries.mode.equals("fuzzy"), 20));
+    }
+
+    // -----------------------------
+    private static InvertedIndex buildIndex(Catalog catalog) {
+        SplittableRandom random = new SplittableRandom(7);
+        InvertedIndex built = new InvertedIndex();
+        StringBuilder name = new StringBuilder();
+        StringBuilder description = new StringBuilder();
+        for (int id = 1; id <= catalog.products; id++) {
+            name.setLength(0);
+            description.setLength(0);
+            for (int w = 0; w < 4; w++) {
+                name.append(catalog.words[skewed(random)]).append(' ');
+            }
+            for (int w = 0; w < 20; w++) {
+                description.append(catalog.words[skewed(random)]).append(' ');
+            }
+            built.add(new SearchDocument(id, name.toString(), description.toString(),
+                    random.nextInt(1, 100_000), (long) random.nextInt(1, CATEGORIES + 1)));
+        }
+        return built;
+    }
+
+    // Low indexes are far more likely, roughly like word frequencies in real text
+    private static int skewed(SplittableRandom random) {
+        return (int) Math.min(VOCABULARY - 1, Math.exp(random.nextDouble() * Math.log(VOCABULARY)) - 1);
+    }
+
+    private static String word(SplittableRandom random) {
+        int length = random.nextInt(3, 10);
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
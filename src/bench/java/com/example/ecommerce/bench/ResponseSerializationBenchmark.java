@@ -0,0 +1,81 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.dto.ProductResponse;
+import com.example.ecommerce.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of writing response lists, per list size. The mapper is built the way Boot builds its own.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="ResponseSerializationBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"1", "50", "1000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<ProductResponse> products;
+    private List<OrderResponse> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        products = new ArrayList<>(size);
+        orders = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            products.add(new ProductResponse((long) i + 1, "product-" + i,
+                    "description of product " + i, 999 + 100L * i, "USD", 100, "category-" + (i % 20)));
+            orders.add(order(i, createdAt));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeProducts() throws Exception {
+        return writer.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] writeOrders() throws Exception {
+        return writer.writeValueAsBytes(orders);
+    }
+
+    private static OrderResponse order(int i, LocalDateTime createdAt) {
+        List<OrderResponse.OrderItemResponse> items = new ArrayList<>(ITEMS_PER_ORDER);
+        for (int line = 0; line < ITEMS_PER_ORDER; line++) {
+            OrderResponse.OrderItemResponse item = new OrderResponse.OrderItemResponse();
+            item.setProductId((long) line + 1);
+            item.setProductName("product-" + line);
+            item.setPrice(new BigDecimal("4.50"));
+            item.setQuantity(1);
+            items.add(item);
+        }
+        OrderResponse order = new OrderResponse();
+        order.setId((long) i + 1);
+        order.setUsername("customer-" + (i % 100));
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setCreatedAt(createdAt);
+        order.setItems(items);
+        order.setTotal(new BigDecimal("4.50").multiply(BigDecimal.valueOf(ITEMS_PER_ORDER)));
+        order.setCurrency("USD");
+        return order;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.dto.OrderRequest;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Flash-sale contention: every thread places two-line orders against a small set of hot products.
+// Run main() to sweep thread counts: mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.bench.StockReservationBenchmark -Dbench.args=
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockReservationBenchmark {
+
+    @Param({"1", "16"})
+    public int hotProducts;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Authentication customer;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        orderService = context.getBean(OrderService.class);
+        customer = BenchContext.customer("bench-customer");
+
+        Category category = new Category();
+        category.setName("bench");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        ProductRepository products = context.getBean(ProductRepository.class);
+        for (int i = 0; i < hotProducts; i++) {
+            Product product = new Product();
+            product.setName("hot-" + i);
+            product.setPriceMinor(999);
+            product.setCurrency("USD");
+            product.setStock(Integer.MAX_VALUE);
+            product.setCategory(category);
+            productIds.add(products.save(product).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object placeOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(
+                line(productIds.get(random.nextInt(productIds.size()))),
+                line(productIds.get(random.nextInt(productIds.size())))));
+        return orderService.placeOrder(request, customer);
+    }
+
+    private static OrderRequest.OrderItemRequest line(Long productId) {
+        OrderRequest.OrderItemRequest line = new OrderRequest.OrderItemRequest();
+        line.setProductId(productId);
+        line.setQuantity(1);
+        return line;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchRunner.sweepThreads(StockReservationBenchmark.class, 1, 2, 4, 8, 16);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ecommerce.bench;
+
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.security.JwtUtil;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Closed-loop HTTP load against a real server, once with platform threads and once with virtual threads.
+// Prints throughput and p50/p99 latency for GET /api/products and POST /api/orders in each mode.
+//   mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.bench.ThreadModeLoadTest -Dbench.args="200 20"
+// args: concurrent clients (default 200), seconds per endpoint (default 20)
+public final class ThreadModeLoadTest {
+
+    private static final int PRODUCTS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("WARNING: Java " + Runtime.version().feature()
+                    + " has no virtual threads; both modes will run on platform threads");
+        }
+        for (boolean virtual : new boolean[]{false, true}) {
+            run(virtual, clients, Duration.ofSeconds(seconds));
+        }
+    }
+
+    private static void run(boolean virtual, int clients, Duration duration) throws Exception {
+        ConfigurableApplicationContext context = BenchContext.start("spring.threads.virtual.enabled=" + virtual);
+        try {
+            List<Long> productIds = seed(context);
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            String token = context.getBean(JwtUtil.class).generateToken("load-customer", Role.ROLE_CUSTOMER);
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            String mode = virtual ? "virtual " : "platform";
+            report(mode, "GET  /api/products", drive(http, clients, duration, () ->
+                    HttpRequest.newBuilder(URI.create(base + "/api/products")).GET().build()));
+            report(mode, "POST /api/orders  ", drive(http, clients, duration, () -> {
+                long productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+                String body = "{\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}";
+                return HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        Category category = new Category();
+        category.setName("load");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("load-" + i);
+            product.setDescription("load test product " + i);
+            product.setPriceMinor(999);
+            product.setCurrency("USD");
+            product.setStock(Integer.MAX_VALUE);
+            product.setCategory(category);
+            products.add(product);
+        }
+        return context.getBean(ProductRepository.class).saveAll(products).stream().map(Product::getId).toList();
+    }
+
+    // Each client sends its next request as soon as the previous one answers; latencies are in nanos
+    private static Result drive(HttpClient http, int clients, Duration duration,
+                                Supplier<HttpRequest> requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                Result result = new Result();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.get();
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    result.record(System.nanoTime() - start, response.statusCode() < 400);
+                }
+                return result;
+            }));
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        pool.shutdown();
+        total.seconds = duration.toMillis() / 1000.0;
+        return total;
+    }
+
+    private static void report(String mode, String endpoint, Result result) {
+        long[] sorted = Arrays.copyOf(result.latencies, result.count);
+        Arrays.sort(sorted);
+        System.out.printf("%s  %s  %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  errors %d%n",
+                mode, endpoint, result.count / result.seconds,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, result.errors);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static final class Result {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+        double seconds;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+    }
+}
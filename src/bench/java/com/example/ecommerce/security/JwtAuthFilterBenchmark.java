@@ -0,0 +1,55 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of JwtAuthFilter for a client that keeps reusing its token (the common case)
+// versus verifying the token on every request.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {
+    };
+
+    private JwtUtil jwtUtil;
+    private JwtAuthFilter filter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil("", "", Duration.ofHours(1), Duration.ofDays(14));
+        filter = new JwtAuthFilter(jwtUtil, new VerifiedTokenCache(10_000), new RevokedTokenSet(100_000, 0.01),
+                new ServiceMetrics(new SimpleMeterRegistry()));
+        token = jwtUtil.generateToken("bench-customer", Role.ROLE_CUSTOMER);
+    }
+
+    @Benchmark
+    public Object filterHotToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), NO_OP);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    // What a cache miss costs: full signature check and claims parse
+    @Benchmark
+    public JwtPrincipal verifyEveryTime() {
+        return jwtUtil.parseToken(token);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.entity.Role;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Raw HS256 cost of issuing a token at login and of verifying one, including the failure path for a bad signature.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="JwtUtilBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String tampered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil("", "", Duration.ofHours(1), Duration.ofDays(14));
+        token = jwtUtil.generateToken("bench-customer", Role.ROLE_CUSTOMER);
+        // Change one signature character away from the end, whose low bits are only padding
+        int at = token.length() - 10;
+        tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("bench-customer", Role.ROLE_CUSTOMER);
+    }
+
+    @Benchmark
+    public JwtPrincipal parse() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Object parseInvalid() {
+        try {
+            return jwtUtil.parseToken(tampered);
+        } catch (SecurityException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.bench.BenchRunner;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// What the rate limiter adds to a request: a bucket take when every thread is one client (all CASes on one long)
+// or its own client, and the whole filter (route match included). Quotas are high enough that nothing is rejected.
+// Run main() to sweep thread counts: mvn -Pbench test-compile exec:exec -Dbench.main=com.example.ecommerce.security.RateLimitBenchmark -Dbench.args=
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {
+    };
+
+    private TokenBuckets buckets;
+    private RateLimitFilter filter;
+    private final AtomicInteger clients = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Client {
+        String key;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup(Level.Trial)
+        public void setUp(RateLimitBenchmark benchmark) {
+            key = "user:bench-" + benchmark.clients.incrementAndGet();
+            request = new MockHttpServletRequest("POST", "/api/orders");
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(key, null, List.of()));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        buckets = new TokenBuckets(1_000_000, 1e9);
+        filter = new RateLimitFilter(true,
+                "POST /api/auth/token=1000000/1e9, POST /api/orders=1000000/1e9, * /api/**=1000000/1e9",
+                new ServiceMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public long takeSharedBucket() {
+        return buckets.tryTake("user:shared");
+    }
+
+    @Benchmark
+    public long takeOwnBucket(Client client) {
+        return buckets.tryTake(client.key);
+    }
+
+    @Benchmark
+    public int filter(Client client) throws Exception {
+        filter.doFilter(client.request, client.response, NO_OP);
+        client.request.clearAttributes(); // OncePerRequestFilter marks the request as filtered
+        return client.response.getStatus();
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchRunner.sweepThreads(RateLimitBenchmark.class, 1, 4, 16, 64);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The revocation check every authenticated request pays: should stay flat as the revocation list grows, and a
+// token that is not revoked (nearly all of them) should be answered by the Bloom filter alone.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="RevokedTokenSetBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RevokedTokenSetBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int revoked;
+
+    private RevokedTokenSet revokedTokens;
+    private String revokedId;
+    private String liveId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        revokedTokens = new RevokedTokenSet(100_000, 0.01);
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < revoked; i++) {
+            revokedId = UUID.randomUUID().toString();
+            revokedTokens.add(revokedId, expiresAt);
+        }
+        liveId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revokedTokens.isRevoked(liveId);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revokedTokens.isRevoked(revokedId);
+    }
+}
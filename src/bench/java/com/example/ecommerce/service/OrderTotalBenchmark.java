@@ -0,0 +1,54 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Order total: the former double sum over a DoubleStream against the exact long minor-unit loop.
+// Run with -prof gc to compare allocation per call.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="OrderTotalBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int itemsPerOrder;
+
+    List<OrderItem> items;
+    List<DoubleItem> doubleItems; // the same lines as they were stored before, price in major units
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(itemsPerOrder);
+        doubleItems = new ArrayList<>(itemsPerOrder);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            OrderItem item = new OrderItem();
+            item.setPriceMinor(199 + 250L * i);
+            item.setQuantity(1 + i % 3);
+            items.add(item);
+            doubleItems.add(new DoubleItem(item.getPriceMinor() / 100.0, item.getQuantity()));
+        }
+    }
+
+    @Benchmark
+    public double doubleStream() {
+        return doubleItems.stream()
+                .mapToDouble(i -> i.price() * i.quantity())
+                .sum();
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        return OrderService.total(items);
+    }
+
+    record DoubleItem(double price, int quantity) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.dto.ProductResponse;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.entity.OrderItem;
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping on its own, without Hibernate or a context.
+//   mvn -Pbench test-compile exec:exec -Dbench.args="ResponseMapperBenchmark"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMapperBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Products {
+
+        Product product;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Category category = new Category();
+            category.setId(1L);
+            category.setName("bench");
+
+            product = new Product();
+            product.setId(1L);
+            product.setName("bench product");
+            product.setDescription("a product used by the mapper benchmark");
+            product.setPriceMinor(1999);
+            product.setCurrency("USD");
+            product.setStock(100);
+            product.setCategory(category);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Orders {
+
+        @Param({"1", "10", "50"})
+        public int itemsPerOrder;
+
+        Order order;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            for (int i = 0; i < itemsPerOrder; i++) {
+                OrderItem item = new OrderItem();
+                item.setId((long) i + 1);
+                item.setProductId((long) i + 1);
+                item.setProductName("item-" + i);
+                item.setPriceMinor(250);
+                item.setQuantity(2);
+                items.add(item);
+            }
+            order = new Order();
+            order.setId(1L);
+            order.setUsername("bench-customer");
+            order.setStatus(OrderStatus.CONFIRMED);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setItems(items);
+            order.setTotalMinor(500L * itemsPerOrder);
+            order.setCurrency("USD");
+        }
+    }
+
+    @Benchmark
+    public ProductResponse mapProduct(Products products) {
+        return ProductService.mapToResponse(products.product);
+    }
+
+    @Benchmark
+    public OrderResponse mapOrder(Orders orders) {
+        return OrderService.mapToResponse(orders.order);
+    }
+}
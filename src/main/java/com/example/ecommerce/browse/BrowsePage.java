@@ -0,0 +1,11 @@
+package com.example.ecommerce.browse;
+
+import com.example.ecommerce.dto.CategoryFacet;
+import com.example.ecommerce.dto.ProductResponse;
+
+import java.util.List;
+
+// totalHits counts every product that passed the filters; facets count them per category with the
+// category filter itself left out, so a client can show what switching category would give
+public record BrowsePage(List<ProductResponse> items, boolean hasMore, int totalHits, List<CategoryFacet> facets) {
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.browse;
+
+// Prices are in minor units of the store currency. Null bounds and category mean "any". The page starts after
+// (afterPrice, afterId) when sorted by price and after afterId when sorted by id; a null afterId starts from the top.
+public record BrowseQuery(Long categoryId, Long minPrice, Long maxPrice, boolean inStock, Sort sort,
+                          Long afterPrice, Long afterId, int limit) {
+
+    public enum Sort {
+        ID, PRICE_ASC, PRICE_DESC
+    }
+}
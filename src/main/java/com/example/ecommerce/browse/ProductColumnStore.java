@@ -0,0 +1,211 @@
+package com.example.ecommerce.browse;
+
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.StockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+// Holds the current ProductColumns snapshot. Loaded from PRODUCTS once the app is up; admin writes are applied
+// copy-on-write after they commit. Order traffic only marks stock stale: a background refresh re-reads those
+// levels, so concurrent orders can never leave an older level on top of a newer one.
+@Slf4j
+@Component
+public class ProductColumnStore {
+
+    private final ProductRepository productRepository;
+    private final StockRepository stockRepository;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile ProductColumns columns = ProductColumns.empty();
+    private final ReentrantLock writeLock = new ReentrantLock(); // one copy-on-write at a time
+    private List<UnaryOperator<ProductColumns>> changesDuringReload; // non-null while a reload runs, guarded by writeLock
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+
+    private final Set<Long> staleStock = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean stockRefreshScheduled = new AtomicBoolean();
+    private final ReentrantLock stockRefreshLock = new ReentrantLock(); // levels are applied in the order they were read
+
+    public ProductColumnStore(ProductRepository productRepository,
+                              StockRepository stockRepository,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.stockRepository = stockRepository;
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public ProductColumns current() {
+        return columns;
+    }
+
+    // Call inside the write transaction; the snapshot only changes if it commits
+    public void upsertAfterCommit(Product product) {
+        ProductRow row = new ProductRow(product.getId(), product.getName(), product.getDescription(),
+                product.getPriceMinor(), product.getCurrency(), product.getStock(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getCategory() != null ? product.getCategory().getName() : null);
+        afterCommit(() -> apply(columns -> columns.withChanges(new TreeMap<>(Map.of(row.id(), row)))));
+    }
+
+    public void removeAfterCommit(long productId) {
+        TreeMap<Long, ProductRow> deletion = new TreeMap<>();
+        deletion.put(productId, null);
+        afterCommit(() -> apply(columns -> columns.withChanges(deletion)));
+    }
+
+    public void renameCategoryAfterCommit(long categoryId, String name) {
+        afterCommit(() -> apply(columns -> columns.withCategoryName(categoryId, name)));
+    }
+
+    // Orders: the new levels are read back after commit rather than carried, so refreshes commute
+    public void refreshStockAfterCommit(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        afterCommit(() -> markStale(ids));
+    }
+
+    // Streams every product into a fresh snapshot and swaps it in. Admin writes that commit meanwhile are applied
+    // to both; stock refreshed meanwhile is marked stale again once the fresh snapshot is in.
+    // A reload asked for while one runs may have missed rows that committed after that one streamed, so the
+    // running caller goes round once more instead of the request being dropped.
+    public void reload() {
+        reloadRequested.set(true);
+        while (reloadRequested.get() && reloading.compareAndSet(false, true)) {
+            try {
+                while (reloadRequested.getAndSet(false)) {
+                    load();
+                }
+            } finally {
+                reloading.set(false);
+            }
+        }
+    }
+
+    // -----------------------------
+    private void load() {
+        try {
+            withWriteLock(() -> changesDuringReload = new ArrayList<>());
+            long started = System.nanoTime();
+            ProductColumns.Builder builder = ProductColumns.builder();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductRow> rows = productRepository.streamProductRows()) {
+                    rows.forEach(builder::add);
+                }
+            });
+            ProductColumns fresh = builder.build();
+            withWriteLock(() -> {
+                ProductColumns replayed = fresh;
+                for (UnaryOperator<ProductColumns> change : changesDuringReload) {
+                    replayed = change.apply(replayed);
+                }
+                changesDuringReload = null;
+                columns = replayed;
+            });
+            log.info("Product columns loaded: {} products in {} ms", fresh.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            withWriteLock(() -> changesDuringReload = null);
+            log.error("Product columns reload failed", e);
+        }
+    }
+
+    private void markStale(Collection<Long> productIds) {
+        staleStock.addAll(productIds);
+        if (stockRefreshScheduled.compareAndSet(false, true)) {
+            executor.execute(this::refreshStock);
+        }
+    }
+
+    private void refreshStock() {
+        stockRefreshLock.lock();
+        try {
+            stockRefreshScheduled.set(false); // ids marked from here on schedule another run
+            List<Long> ids = new ArrayList<>(staleStock);
+            staleStock.removeAll(ids);
+            if (!ids.isEmpty()) {
+                refreshStock(ids);
+            }
+        } finally {
+            stockRefreshLock.unlock();
+        }
+    }
+
+    private void refreshStock(List<Long> ids) {
+        try {
+            Map<Long, Integer> levels = stockRepository.findStockLevels(ids);
+            withWriteLock(() -> {
+                columns = columns.withStockLevels(levels);
+                if (changesDuringReload != null) {
+                    // The reload may have read these rows before or after this refresh, so read them once more
+                    changesDuringReload.add(fresh -> {
+                        markStale(ids);
+                        return fresh;
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            staleStock.addAll(ids); // retried with the next order that touches them
+            log.error("Stock refresh for product columns failed", e);
+        }
+    }
+
+    private void apply(UnaryOperator<ProductColumns> change) {
+        withWriteLock(() -> {
+            columns = change.apply(columns);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
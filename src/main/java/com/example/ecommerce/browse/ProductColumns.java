@@ -0,0 +1,591 @@
+package com.example.ecommerce.browse;
+
+import com.example.ecommerce.dto.CategoryFacet;
+import com.example.ecommerce.dto.ProductResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Read-optimized copy of the catalog, one primitive array per field. Rows are kept in id order and byPrice lists
+// them by price (ties in id order). An instance never changes: every write builds a new one that shares the
+// columns it did not touch, so browsing takes no lock and never sees a half-applied write.
+public final class ProductColumns {
+
+    private static final int NO_CATEGORY = -1;
+    // A category holding at least 1/32 of the rows gets a bitset; a sparser one a sorted row list, which is smaller
+    private static final int DENSE_DIVISOR = 32;
+
+    private final int size;
+    private final long[] ids;
+    private final long[] prices; // minor units
+    private final String[] currencies;
+    private final int[] stocks;
+    private final int[] categories; // category ordinal per row, NO_CATEGORY when unset
+    private final String[] names;
+    private final String[] descriptions;
+    private final int[] byPrice;
+    // Category and stock again in byPrice order, so a price range is read front to back instead of row by row
+    private final int[] categoriesByPrice;
+    private final int[] stocksByPrice;
+    private final int[] pricePositions; // row -> its position in byPrice
+
+    // Category dictionary by ordinal. Ordinals are only ever appended, so copied rows keep theirs.
+    private final long[] categoryIds;
+    private final String[] categoryNames;
+    private final BitSet[] denseRows; // null for sparse categories
+    private final int[][] sparseRows; // null for dense categories
+    // Facet counts with no price filter, kept current with every change
+    private final int[] categorySizes;
+    private final int[] categoryInStock;
+    private final int inStockCount;
+
+    private ProductColumns(int size, long[] ids, long[] prices, String[] currencies, int[] stocks, int[] categories,
+                           String[] names, String[] descriptions, int[] byPrice, int[] categoriesByPrice, int[] stocksByPrice,
+                           int[] pricePositions, long[] categoryIds, String[] categoryNames, BitSet[] denseRows,
+                           int[][] sparseRows, int[] categorySizes, int[] categoryInStock, int inStockCount) {
+        this.size = size;
+        this.ids = ids;
+        this.prices = prices;
+        this.currencies = currencies;
+        this.stocks = stocks;
+        this.categories = categories;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.byPrice = byPrice;
+        this.categoriesByPrice = categoriesByPrice;
+        this.stocksByPrice = stocksByPrice;
+        this.pricePositions = pricePositions;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.denseRows = denseRows;
+        this.sparseRows = sparseRows;
+        this.categorySizes = categorySizes;
+        this.categoryInStock = categoryInStock;
+        this.inStockCount = inStockCount;
+    }
+
+    public static ProductColumns empty() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder(null, 1024);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ---------- reads ----------
+
+    public BrowsePage browse(BrowseQuery query) {
+        long min = query.minPrice() != null ? query.minPrice() : Long.MIN_VALUE;
+        long max = query.maxPrice() != null ? query.maxPrice() : Long.MAX_VALUE;
+        int lo = firstPriceAtLeast(min);
+        int hi = Math.max(lo, firstPriceAbove(max));
+
+        int[] counts;
+        int matched;
+        if (query.minPrice() == null && query.maxPrice() == null) {
+            counts = query.inStock() ? categoryInStock : categorySizes; // only read from here on
+            matched = query.inStock() ? inStockCount : size;
+        } else {
+            // One pass over the price range counts every category at once
+            counts = new int[categoryIds.length];
+            matched = 0;
+            for (int k = lo; k < hi; k++) {
+                if (query.inStock() && stocksByPrice[k] <= 0) {
+                    continue;
+                }
+                matched++;
+                if (categoriesByPrice[k] != NO_CATEGORY) {
+                    counts[categoriesByPrice[k]]++;
+                }
+            }
+        }
+
+        // An unknown category matches nothing, but its facets still show what the other filters match
+        int category = query.categoryId() != null ? ordinalOf(query.categoryId()) : NO_CATEGORY;
+        boolean unknownCategory = query.categoryId() != null && category == NO_CATEGORY;
+        int totalHits = query.categoryId() == null ? matched : unknownCategory ? 0 : counts[category];
+
+        int[] page = new int[query.limit() + 1]; // one extra row tells whether another page exists
+        int found = 0;
+        if (!unknownCategory) {
+            found = switch (query.sort()) {
+                case ID -> collectById(query, category, min, max, page);
+                case PRICE_ASC -> collectByPrice(query, category, lo, hi, false, page);
+                case PRICE_DESC -> collectByPrice(query, category, lo, hi, true, page);
+            };
+        }
+
+        int returned = Math.min(found, query.limit());
+        List<ProductResponse> items = new ArrayList<>(returned);
+        for (int i = 0; i < returned; i++) {
+            items.add(response(page[i]));
+        }
+        return new BrowsePage(items, found > query.limit(), totalHits, facets(counts));
+    }
+
+    // ---------- copy-on-write ----------
+
+    // changes maps a product id to its new row, or to null when the product was deleted
+    public ProductColumns withChanges(SortedMap<Long, ProductRow> changes) {
+        int newSize = size;
+        for (Map.Entry<Long, ProductRow> change : changes.entrySet()) {
+            boolean exists = rowOf(change.getKey()) >= 0;
+            if (exists && change.getValue() == null) {
+                newSize--;
+            } else if (!exists && change.getValue() != null) {
+                newSize++;
+            }
+        }
+
+        Builder builder = new Builder(this, newSize);
+        int[] oldToNew = new int[size];
+        int[] added = new int[changes.size()];
+        int addedCount = 0;
+        int row = 0;
+        for (Map.Entry<Long, ProductRow> change : changes.entrySet()) {
+            long id = change.getKey();
+            row = copyRows(builder, oldToNew, row, firstIdAtLeast(id, row));
+            if (row < size && ids[row] == id) {
+                oldToNew[row++] = -1;
+            }
+            if (change.getValue() != null) {
+                added[addedCount++] = builder.append(change.getValue());
+            }
+        }
+        copyRows(builder, oldToNew, row, size);
+
+        // Surviving rows keep their relative price order, so the old permutation only needs the new rows merged in
+        int[] newRows = Arrays.copyOf(added, addedCount);
+        sortByPrice(newRows, builder.prices);
+        int[] merged = new int[builder.size];
+        int m = 0;
+        int a = 0;
+        for (int oldRow : byPrice) {
+            int mapped = oldToNew[oldRow];
+            if (mapped < 0) {
+                continue;
+            }
+            while (a < newRows.length && before(newRows[a], mapped, builder.prices)) {
+                merged[m++] = newRows[a++];
+            }
+            merged[m++] = mapped;
+        }
+        while (a < newRows.length) {
+            merged[m++] = newRows[a++];
+        }
+        return builder.finish(merged);
+    }
+
+    // Only the stock column and the in-stock counts are copied; ids with no row are ignored
+    public ProductColumns withStockLevels(Map<Long, Integer> levels) {
+        int[] updated = stocks.clone();
+        int[] updatedByPrice = stocksByPrice.clone();
+        int[] inStock = categoryInStock.clone();
+        int inStockTotal = inStockCount;
+        for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+            int row = rowOf(level.getKey());
+            if (row < 0) {
+                continue;
+            }
+            int change = (level.getValue() > 0 ? 1 : 0) - (updated[row] > 0 ? 1 : 0);
+            updated[row] = level.getValue();
+            updatedByPrice[pricePositions[row]] = level.getValue();
+            inStockTotal += change;
+            if (categories[row] != NO_CATEGORY) {
+                inStock[categories[row]] += change;
+            }
+        }
+        return new ProductColumns(size, ids, prices, currencies, updated, categories, names, descriptions, byPrice,
+                categoriesByPrice, updatedByPrice, pricePositions, categoryIds, categoryNames, denseRows, sparseRows,
+                categorySizes, inStock, inStockTotal);
+    }
+
+    public ProductColumns withCategoryName(long categoryId, String name) {
+        int ordinal = ordinalOf(categoryId);
+        if (ordinal == NO_CATEGORY) {
+            return this;
+        }
+        String[] renamed = categoryNames.clone();
+        renamed[ordinal] = name;
+        return new ProductColumns(size, ids, prices, currencies, stocks, categories, names, descriptions, byPrice,
+                categoriesByPrice, stocksByPrice, pricePositions, categoryIds, renamed, denseRows, sparseRows,
+                categorySizes, categoryInStock, inStockCount);
+    }
+
+    // -----------------------------
+    private int collectById(BrowseQuery query, int category, long min, long max, int[] page) {
+        int from = query.afterId() != null ? firstIdAtLeast(query.afterId() + 1, 0) : 0;
+        int found = 0;
+        if (category == NO_CATEGORY) {
+            for (int row = from; row < size && found < page.length; row++) {
+                if (matches(row, min, max, query.inStock())) {
+                    page[found++] = row;
+                }
+            }
+        } else if (denseRows[category] != null) {
+            BitSet rows = denseRows[category];
+            for (int row = rows.nextSetBit(from); row >= 0 && found < page.length; row = rows.nextSetBit(row + 1)) {
+                if (matches(row, min, max, query.inStock())) {
+                    page[found++] = row;
+                }
+            }
+        } else {
+            int[] rows = sparseRows[category];
+            int start = Arrays.binarySearch(rows, from);
+            for (int i = start >= 0 ? start : -start - 1; i < rows.length && found < page.length; i++) {
+                if (matches(rows[i], min, max, query.inStock())) {
+                    page[found++] = rows[i];
+                }
+            }
+        }
+        return found;
+    }
+
+    // [lo, hi) is already the price range, so only category and stock are left to check
+    private int collectByPrice(BrowseQuery query, int category, int lo, int hi, boolean descending, int[] page) {
+        boolean resume = query.afterId() != null && query.afterPrice() != null;
+        int found = 0;
+        if (!descending) {
+            int from = resume ? Math.max(lo, firstNotBefore(query.afterPrice(), query.afterId() + 1)) : lo;
+            for (int k = from; k < hi && found < page.length; k++) {
+                if (accepts(k, category, query.inStock())) {
+                    page[found++] = byPrice[k];
+                }
+            }
+        } else {
+            int from = resume ? Math.min(hi, firstNotBefore(query.afterPrice(), query.afterId())) - 1 : hi - 1;
+            for (int k = from; k >= lo && found < page.length; k--) {
+                if (accepts(k, category, query.inStock())) {
+                    page[found++] = byPrice[k];
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean matches(int row, long min, long max, boolean inStock) {
+        return prices[row] >= min && prices[row] <= max && (!inStock || stocks[row] > 0);
+    }
+
+    // position is in byPrice order
+    private boolean accepts(int position, int category, boolean inStock) {
+        return (category == NO_CATEGORY || categoriesByPrice[position] == category)
+                && (!inStock || stocksByPrice[position] > 0);
+    }
+
+    private List<CategoryFacet> facets(int[] counts) {
+        List<CategoryFacet> facets = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                facets.add(new CategoryFacet(categoryIds[ordinal], categoryNames[ordinal], counts[ordinal]));
+            }
+        }
+        facets.sort(Comparator.comparingInt(CategoryFacet::getCount).reversed()
+                .thenComparing(CategoryFacet::getCategoryId));
+        return facets;
+    }
+
+    private ProductResponse response(int row) {
+        int category = categories[row];
+        return new ProductResponse(ids[row], names[row], descriptions[row], prices[row], currencies[row], stocks[row],
+                category != NO_CATEGORY ? categoryNames[category] : null);
+    }
+
+    private int copyRows(Builder builder, int[] oldToNew, int from, int to) {
+        int start = builder.size;
+        builder.copy(this, from, to);
+        for (int row = from; row < to; row++) {
+            oldToNew[row] = start + row - from;
+        }
+        return to;
+    }
+
+    private int rowOf(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        return row >= 0 ? row : -1;
+    }
+
+    private int firstIdAtLeast(long id, int from) {
+        int row = Arrays.binarySearch(ids, from, size, id);
+        return row >= 0 ? row : -row - 1;
+    }
+
+    private int ordinalOf(long categoryId) {
+        for (int ordinal = 0; ordinal < categoryIds.length; ordinal++) {
+            if (categoryIds[ordinal] == categoryId) {
+                return ordinal;
+            }
+        }
+        return NO_CATEGORY;
+    }
+
+    private int firstPriceAtLeast(long price) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[byPrice[mid]] < price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int firstPriceAbove(long price) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[byPrice[mid]] <= price) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First position in byPrice whose (price, id) is not below the given one
+    private int firstNotBefore(long price, long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int row = byPrice[mid];
+            if (prices[row] < price || (prices[row] == price && ids[row] < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean before(int a, int b, long[] prices) {
+        return prices[a] < prices[b] || (prices[a] == prices[b] && a < b);
+    }
+
+    // Stable bottom-up merge sort of row numbers by price; rows come in id order, so equal prices stay in id order
+    private static void sortByPrice(int[] rows, long[] prices) {
+        int n = rows.length;
+        int[] source = rows;
+        int[] target = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    target[k++] = prices[source[j]] < prices[source[i]] ? source[j++] : source[i++];
+                }
+                while (i < mid) {
+                    target[k++] = source[i++];
+                }
+                while (j < hi) {
+                    target[k++] = source[j++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != rows) {
+            System.arraycopy(source, 0, rows, 0, n);
+        }
+    }
+
+    private static ProductColumns indexed(int size, long[] ids, long[] prices, String[] currencies, int[] stocks,
+                                          int[] categories, String[] names, String[] descriptions, int[] byPrice,
+                                          long[] categoryIds, String[] categoryNames) {
+        int[] counts = new int[categoryIds.length];
+        int[] inStock = new int[categoryIds.length];
+        int inStockCount = 0;
+        for (int row = 0; row < size; row++) {
+            boolean available = stocks[row] > 0;
+            if (available) {
+                inStockCount++;
+            }
+            if (categories[row] != NO_CATEGORY) {
+                counts[categories[row]]++;
+                if (available) {
+                    inStock[categories[row]]++;
+                }
+            }
+        }
+        BitSet[] dense = new BitSet[categoryIds.length];
+        int[][] sparse = new int[categoryIds.length][];
+        for (int ordinal = 0; ordinal < categoryIds.length; ordinal++) {
+            if (counts[ordinal] > 0 && (long) counts[ordinal] * DENSE_DIVISOR >= size) {
+                dense[ordinal] = new BitSet(size);
+            } else {
+                sparse[ordinal] = new int[counts[ordinal]];
+            }
+        }
+        int[] filled = new int[categoryIds.length];
+        for (int row = 0; row < size; row++) {
+            int ordinal = categories[row];
+            if (ordinal == NO_CATEGORY) {
+                continue;
+            }
+            if (dense[ordinal] != null) {
+                dense[ordinal].set(row);
+            } else {
+                sparse[ordinal][filled[ordinal]++] = row;
+            }
+        }
+        int[] categoriesByPrice = new int[size];
+        int[] stocksByPrice = new int[size];
+        int[] pricePositions = new int[size];
+        for (int k = 0; k < size; k++) {
+            int row = byPrice[k];
+            categoriesByPrice[k] = categories[row];
+            stocksByPrice[k] = stocks[row];
+            pricePositions[row] = k;
+        }
+        return new ProductColumns(size, ids, prices, currencies, stocks, categories, names, descriptions, byPrice,
+                categoriesByPrice, stocksByPrice, pricePositions, categoryIds, categoryNames, dense, sparse,
+                counts, inStock, inStockCount);
+    }
+
+    // Collects rows in ascending id order into growable columns
+    public static final class Builder {
+
+        private int size;
+        private long[] ids;
+        private long[] prices;
+        private String[] currencies;
+        private int[] stocks;
+        private int[] categories;
+        private String[] names;
+        private String[] descriptions;
+
+        private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+        private long[] categoryIds;
+        private String[] categoryNames;
+        private int categoryCount;
+
+        // A builder started from base keeps base's category ordinals
+        private Builder(ProductColumns base, int capacity) {
+            ids = new long[capacity];
+            prices = new long[capacity];
+            currencies = new String[capacity];
+            stocks = new int[capacity];
+            categories = new int[capacity];
+            names = new String[capacity];
+            descriptions = new String[capacity];
+            if (base == null) {
+                categoryIds = new long[16];
+                categoryNames = new String[16];
+            } else {
+                categoryCount = base.categoryIds.length;
+                categoryIds = Arrays.copyOf(base.categoryIds, categoryCount + 16);
+                categoryNames = Arrays.copyOf(base.categoryNames, categoryCount + 16);
+                for (int ordinal = 0; ordinal < categoryCount; ordinal++) {
+                    categoryOrdinals.put(categoryIds[ordinal], ordinal);
+                }
+            }
+        }
+
+        public Builder add(ProductRow row) {
+            append(row);
+            return this;
+        }
+
+        public ProductColumns build() {
+            int[] byPrice = new int[size];
+            for (int row = 0; row < size; row++) {
+                byPrice[row] = row;
+            }
+            sortByPrice(byPrice, prices);
+            return finish(byPrice);
+        }
+
+        private int append(ProductRow product) {
+            ensureCapacity(size + 1);
+            int row = size++;
+            ids[row] = product.id();
+            prices[row] = product.price();
+            currencies[row] = product.currency();
+            stocks[row] = product.stock();
+            categories[row] = ordinal(product.categoryId(), product.categoryName());
+            names[row] = product.name();
+            descriptions[row] = product.description();
+            return row;
+        }
+
+        // Rows [from, to) of a base this builder was started from, so their category ordinals still hold
+        private void copy(ProductColumns base, int from, int to) {
+            int count = to - from;
+            ensureCapacity(size + count);
+            System.arraycopy(base.ids, from, ids, size, count);
+            System.arraycopy(base.prices, from, prices, size, count);
+            System.arraycopy(base.currencies, from, currencies, size, count);
+            System.arraycopy(base.stocks, from, stocks, size, count);
+            System.arraycopy(base.categories, from, categories, size, count);
+            System.arraycopy(base.names, from, names, size, count);
+            System.arraycopy(base.descriptions, from, descriptions, size, count);
+            size += count;
+        }
+
+        private int ordinal(Long categoryId, String categoryName) {
+            if (categoryId == null) {
+                return NO_CATEGORY;
+            }
+            Integer ordinal = categoryOrdinals.get(categoryId);
+            if (ordinal == null) {
+                ordinal = categoryCount++;
+                if (ordinal == categoryIds.length) {
+                    categoryIds = Arrays.copyOf(categoryIds, ordinal * 2);
+                    categoryNames = Arrays.copyOf(categoryNames, ordinal * 2);
+                }
+                categoryIds[ordinal] = categoryId;
+                categoryOrdinals.put(categoryId, ordinal);
+            }
+            categoryNames[ordinal] = categoryName; // the latest row wins, which also picks up renames
+            return ordinal;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(needed, ids.length + (ids.length >> 1) + 16);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            currencies = Arrays.copyOf(currencies, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+
+        // Columns are trimmed to size; a builder sized exactly hands its arrays over without a copy
+        private ProductColumns finish(int[] byPrice) {
+            if (ids.length != size) {
+                ids = Arrays.copyOf(ids, size);
+                prices = Arrays.copyOf(prices, size);
+                currencies = Arrays.copyOf(currencies, size);
+                stocks = Arrays.copyOf(stocks, size);
+                categories = Arrays.copyOf(categories, size);
+                names = Arrays.copyOf(names, size);
+                descriptions = Arrays.copyOf(descriptions, size);
+            }
+            return indexed(size, ids, prices, currencies, stocks, categories, names, descriptions, byPrice,
+                    Arrays.copyOf(categoryIds, categoryCount), Arrays.copyOf(categoryNames, categoryCount));
+        }
+    }
+}
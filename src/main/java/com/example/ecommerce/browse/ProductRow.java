@@ -0,0 +1,7 @@
+package com.example.ecommerce.browse;
+
+// One product as the column store takes it in: from the startup scan or from a committed admin write.
+// price is in minor units of currency
+public record ProductRow(long id, String name, String description, long price, String currency, int stock,
+                         Long categoryId, String categoryName) {
+}
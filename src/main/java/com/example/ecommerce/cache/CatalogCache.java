@@ -0,0 +1,221 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.dto.CacheStatsResponse;
+import com.example.ecommerce.dto.CategoryResponse;
+import com.example.ecommerce.dto.PageResponse;
+import com.example.ecommerce.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Read-through cache for the public catalog reads; admin writes evict precisely after commit
+@Component
+public class CatalogCache implements MeterBinder {
+
+    private static final String ALL_CATEGORIES = "all";
+
+    private final Cache<String, List<CategoryResponse>> categories;
+    private final Cache<PageKey, PageResponse<ProductResponse>> productPages;
+    private final Cache<Long, List<ProductResponse>> productsByCategory;
+
+    // Bumped after every committed catalog write; backs the public ETags
+    private final AtomicLong version = new AtomicLong(1);
+
+    // Bumped before every eviction, so a load that may have read the rows being evicted is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public CatalogCache(@Value("${app.catalog.cache.max-rows:100000}") long maxRows,
+                        @Value("${app.catalog.cache.ttl:5m}") Duration ttl) {
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Product caches are bounded by the number of rows they hold, not the number of entries
+        this.productPages = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((PageKey key, PageResponse<ProductResponse> page) -> Math.max(1, page.getItems().size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.productsByCategory = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Long key, List<ProductResponse> products) -> Math.max(1, products.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // ---------- reads ----------
+
+    public List<CategoryResponse> getCategories(Supplier<List<CategoryResponse>> loader) {
+        return readThrough(categories, ALL_CATEGORIES, () -> List.copyOf(loader.get()));
+    }
+
+    public PageResponse<ProductResponse> getProductPage(long afterId, int size,
+                                                        Supplier<PageResponse<ProductResponse>> loader) {
+        return readThrough(productPages, new PageKey(afterId, size), () -> {
+            PageResponse<ProductResponse> page = loader.get();
+            return new PageResponse<>(List.copyOf(page.getItems()), page.getNextCursor());
+        });
+    }
+
+    public List<ProductResponse> getProductsByCategory(long categoryId, Supplier<List<ProductResponse>> loader) {
+        return readThrough(productsByCategory, categoryId, () -> List.copyOf(loader.get()));
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    // ---------- invalidation ----------
+
+    // Category added, renamed or removed
+    public void evictCategories() {
+        afterCommit(categories::invalidateAll);
+    }
+
+    // Category renamed: its name is denormalized into every product row
+    public void evictCategoryRename(long categoryId) {
+        afterCommit(() -> {
+            categories.invalidateAll();
+            productsByCategory.invalidate(categoryId);
+            productPages.invalidateAll();
+        });
+    }
+
+    public void evictCategory(long categoryId) {
+        afterCommit(() -> {
+            categories.invalidateAll();
+            productsByCategory.invalidate(categoryId);
+        });
+    }
+
+    // Product added, updated, deleted or restocked; categoryIds are every category it belonged to
+    public void evictProduct(long productId, Long... categoryIds) {
+        evictProducts(List.of(productId), Arrays.asList(categoryIds));
+    }
+
+    // Several products changed in one transaction (an order's lines, a pipeline batch): one page scan and one
+    // version bump for all of them. Null category ids are ignored.
+    public void evictProducts(Collection<Long> productIds, Collection<Long> categoryIds) {
+        long[] sortedIds = productIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        List<Long> categories = categoryIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (sortedIds.length == 0 && categories.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            if (sortedIds.length > 0) {
+                productPages.asMap().entrySet().removeIf(entry -> covers(entry.getKey(), entry.getValue(), sortedIds));
+            }
+            productsByCategory.invalidateAll(categories);
+        });
+    }
+
+    // Bulk import: too many products changed to evict page by page
+    public void evictAllProducts() {
+        afterCommit(() -> {
+            productPages.invalidateAll();
+            productsByCategory.invalidateAll();
+        });
+    }
+
+    // cache.gets / cache.evictions / cache.size, tagged cache=catalog.<name>; Boot binds every MeterBinder bean
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, categories, "catalog.categories");
+        CaffeineCacheMetrics.monitor(registry, productPages, "catalog.productPages");
+        CaffeineCacheMetrics.monitor(registry, productsByCategory, "catalog.productsByCategory");
+    }
+
+    public Map<String, CacheStatsResponse> stats() {
+        return Map.of(
+                "categories", toResponse("categories", categories),
+                "productPages", toResponse("productPages", productPages),
+                "productsByCategory", toResponse("productsByCategory", productsByCategory));
+    }
+
+    // -----------------------------
+    // A keyset page holds ids in (afterId, lastId]; the final page is open-ended so it also sees new products.
+    // Checks the smallest of sortedIds above afterId.
+    private static boolean covers(PageKey key, PageResponse<ProductResponse> page, long[] sortedIds) {
+        int first = Arrays.binarySearch(sortedIds, key.afterId());
+        first = first >= 0 ? first + 1 : -first - 1;
+        if (first == sortedIds.length) {
+            return false;
+        }
+        if (page.getNextCursor() == null || page.getItems().isEmpty()) {
+            return true;
+        }
+        return sortedIds[first] <= page.getItems().get(page.getItems().size() - 1).getId();
+    }
+
+    // A load still running when a write commits may have read the old rows, and invalidateAll/removeIf do not
+    // wait for loads in flight. Comparing the generation before and after the load catches that: the load is
+    // not cached if an eviction started meanwhile, and is removed again if it was published just after one
+    // (a read in that instant can still see it; the TTL bounds even that).
+    private <K, V> V readThrough(Cache<K, V> cache, K key, Supplier<V> loader) {
+        long started = generation.get();
+        AtomicReference<V> loaded = new AtomicReference<>();
+        V cached = cache.get(key, k -> {
+            V value = loader.get();
+            loaded.set(value);
+            return generation.get() == started ? value : null; // null: nothing is cached
+        });
+        V value = loaded.get();
+        if (value == null) {
+            return cached; // a hit, or another caller's load
+        }
+        if (generation.get() != started) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    // Evicting before commit would let a concurrent reader re-cache the old rows. The generation moves before
+    // the eviction so loads in flight drop what they read (see readThrough); the version moves after it, so
+    // ETags change once the old rows are gone.
+    private void afterCommit(Runnable eviction) {
+        Runnable evictAndBump = () -> {
+            generation.incrementAndGet();
+            eviction.run();
+            version.incrementAndGet();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAndBump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAndBump.run();
+            }
+        });
+    }
+
+    private static CacheStatsResponse toResponse(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private record PageKey(long afterId, int size) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ecommerce.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Pre-encoded JSON bodies for public catalog GETs, keyed by resource and catalog version
+@Component
+public class JsonBodyCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<BodyKey, EncodedBody> bodies;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+
+    public JsonBodyCache(ObjectMapper objectMapper,
+                         @Value("${app.catalog.body-cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${app.catalog.body-cache.gzip:true}") boolean gzipEnabled,
+                         @Value("${app.catalog.body-cache.gzip-min-size:1KB}") DataSize gzipMinSize,
+                         @Value("${app.catalog.cache.ttl:5m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = (int) gzipMinSize.toBytes();
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((BodyKey key, EncodedBody body) -> body.weight())
+                .expireAfterWrite(ttl) // CatalogCache's TTL, so a body encoded from rows a racing eviction missed does not outlive them
+                .build();
+    }
+
+    // Stale versions are never requested again and simply age out under the weight bound or the TTL
+    public EncodedBody get(String resource, long version, Supplier<?> loader) {
+        return bodies.get(new BodyKey(resource, version), key -> encode(loader.get(), version));
+    }
+
+    public static String etag(long version, boolean gzip) {
+        return gzip ? "\"c" + version + "-gz\"" : "\"c" + version + "\"";
+    }
+
+    // -----------------------------
+    private EncodedBody encode(Object value, long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+            return new EncodedBody(json, gzip, version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode catalog response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public record EncodedBody(byte[] json, byte[] gzip, long version) {
+
+        int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private record BodyKey(String resource, long version) {
+    }
+}
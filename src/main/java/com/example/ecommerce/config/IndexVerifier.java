@@ -0,0 +1,89 @@
+package com.example.ecommerce.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Logs every @Table index that the live schema is missing (ddl-auto does not run in every environment)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexVerifier {
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null || table.indexes().length == 0) {
+                    continue;
+                }
+                List<List<String>> existing = existingIndexes(metaData, table.name());
+                for (Index index : table.indexes()) {
+                    List<String> expected = columns(index.columnList());
+                    if (existing.stream().noneMatch(columns -> startsWith(columns, expected))) {
+                        log.warn("Missing index {} on {}({})", index.name(), table.name(), index.columnList());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not verify database indexes", e);
+        }
+    }
+
+    // -----------------------------
+    // Column lists of every index on the table, in key order
+    private static List<List<String>> existingIndexes(DatabaseMetaData metaData, String table) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers()
+                ? table.toUpperCase(Locale.ROOT)
+                : table.toLowerCase(Locale.ROOT);
+
+        Map<String, Map<Short, String>> indexes = new TreeMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, tableName, false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName != null && column != null) {
+                    indexes.computeIfAbsent(indexName, name -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        List<List<String>> result = new ArrayList<>();
+        indexes.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+        return result;
+    }
+
+    private static List<String> columns(String columnList) {
+        return Arrays.stream(columnList.split(","))
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    // An index whose leading columns match serves the same lookups
+    private static boolean startsWith(List<String> columns, List<String> prefix) {
+        return columns.size() >= prefix.size() && columns.subList(0, prefix.size()).equals(prefix);
+    }
+}
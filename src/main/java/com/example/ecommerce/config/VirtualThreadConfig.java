@@ -0,0 +1,48 @@
+package com.example.ecommerce.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// spring.threads.virtual.enabled=true makes Boot serve Tomcat requests on virtual threads (Java 21+ runtime).
+// Virtual threads are cheap enough that request concurrency is no longer bounded by the Tomcat pool,
+// so the database is guarded by a permit semaphore sized to the Hikari pool instead.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor permitLimitedDataSourcePostProcessor(
+            @Value("${app.db.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${app.db.permit-timeout:2s}") Duration permitTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof PermitLimitedDataSource)) {
+                    return new PermitLimitedDataSource(dataSource, permits, permitTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Next to hikaricp.connections.*: how many permits are free and how many requests queue for one
+    @Bean
+    public MeterBinder dbPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof PermitLimitedDataSource limited) {
+                Gauge.builder("db.permits.available", limited, PermitLimitedDataSource::availablePermits)
+                        .register(registry);
+                Gauge.builder("db.permits.waiting", limited, PermitLimitedDataSource::waitingThreads)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -1,36 +1,50 @@
 package com.example.ecommerce.controller;
 
-import com.example.ecommerce.entity.Role;
-import com.example.ecommerce.entity.User;
-import com.example.ecommerce.repository.UserRepository;
-import com.example.ecommerce.security.JwtUtil;
+import com.example.ecommerce.dto.TokenResponse;
+import com.example.ecommerce.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
+    private final AuthService authService;
 
     // POST /api/auth/token
+    // Answered asynchronously: the request thread is released while the password is hashed
     @PostMapping("/token")
-    public ResponseEntity<String> generateToken(
+    public CompletableFuture<ResponseEntity<?>> generateToken(
             @RequestParam String username,
             @RequestParam String password) {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return authService.issueToken(username, password)
+                .thenApply(tokens -> tokens
+                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.status(401).body("Invalid credentials")));
+    }
 
-        if (!user.getPassword().equals(password)) { // plaintext for demo; hash in prod
-            return ResponseEntity.status(401).body("Invalid credentials");
-        }
+    // POST /api/auth/refresh
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestParam String refreshToken) {
+        return authService.refresh(refreshToken)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(401).body("Invalid refresh token"));
+    }
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+    // POST /api/auth/logout
+    // Revokes the bearer access token and, if given, the refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(required = false) String refreshToken) {
 
-        return ResponseEntity.ok(token);
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(accessToken, refreshToken);
+        return ResponseEntity.noContent().build();
     }
 }
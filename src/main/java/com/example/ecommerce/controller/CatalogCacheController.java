@@ -0,0 +1,25 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.CacheStatsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalog-cache")
+@RequiredArgsConstructor
+public class CatalogCacheController {
+
+    private final CatalogCache catalogCache;
+
+    // Admin: hit/miss/eviction counters for sizing the catalog cache
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStatsResponse>> stats() {
+        return ResponseEntity.ok(catalogCache.stats());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.cache.JsonBodyCache;
+import com.example.ecommerce.cache.JsonBodyCache.EncodedBody;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Serves cached JSON bytes for public catalog GETs and answers If-None-Match before any service call
+@Component
+@RequiredArgsConstructor
+class CatalogResponses {
+
+    private final CatalogCache catalogCache;
+    private final JsonBodyCache jsonBodyCache;
+
+    ResponseEntity<byte[]> respond(HttpServletRequest request, String resource, Supplier<?> loader) {
+        long version = catalogCache.version();
+        boolean acceptsGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matches(ifNoneMatch, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(JsonBodyCache.etag(version, acceptsGzip))
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        EncodedBody body = jsonBodyCache.get(resource, version, loader);
+        boolean gzip = acceptsGzip && body.gzip() != null;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(JsonBodyCache.etag(body.version(), gzip))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? body.gzip() : body.json());
+    }
+
+    // gzip unless the client refuses it with q=0; * stands for gzip when gzip itself is not listed
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return quality(params) > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality(params) > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    // -----------------------------
+    // Weak comparison is what If-None-Match calls for, so a W/ prefix is ignored
+    private static boolean matches(String ifNoneMatch, long version) {
+        String plain = JsonBodyCache.etag(version, false);
+        String gzip = JsonBodyCache.etag(version, true);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(plain) || tag.equals(gzip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // q defaults to 1; an unreadable q counts as 0, since the uncompressed body is always safe to send
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 1 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ecommerce.controller;
 import com.example.ecommerce.dto.CategoryRequest;
 import com.example.ecommerce.dto.CategoryResponse;
 import com.example.ecommerce.service.CategoryService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,19 +11,18 @@ import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/categories")
 @RequiredArgsConstructor
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogResponses catalogResponses;
 
     // Public endpoint
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> listCategories() {
-        return ResponseEntity.ok(categoryService.listCategories());
+    public ResponseEntity<byte[]> listCategories(HttpServletRequest request) {
+        return catalogResponses.respond(request, "categories", categoryService::listCategories);
     }
 
     // Admin-only endpoints
@@ -1,16 +1,23 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.OrderQuery;
 import com.example.ecommerce.dto.OrderRequest;
 import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.dto.OrderStatusResponse;
+import com.example.ecommerce.dto.PageResponse;
 import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.service.OrderIdempotency;
+import com.example.ecommerce.service.OrderIdempotency.PlacedOrder;
 import com.example.ecommerce.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -18,24 +25,65 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotency orderIdempotency;
 
-    // Customer: Place an order
+    // Customer: Place an order (202 + status URL when app.orders.async.enabled, 503 while the queue is full).
+    // With an Idempotency-Key header, retries of the same order get the first response replayed
+    // (Idempotent-Replayed: true) and 422 if the key was used for a different order.
     @PostMapping
     public ResponseEntity<OrderResponse> placeOrder(@RequestBody OrderRequest request,
+                                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                     Authentication auth) {
-        return new ResponseEntity<>(orderService.placeOrder(request, auth), HttpStatus.CREATED);
+        PlacedOrder placed = idempotencyKey == null
+                ? place(request, auth, null)
+                : orderIdempotency.placeOnce(auth.getName(), idempotencyKey, request, () -> place(request, auth, idempotencyKey));
+
+        ResponseEntity.BodyBuilder response = placed.queued()
+                ? ResponseEntity.accepted().location(URI.create("/api/orders/" + placed.order().getId() + "/status"))
+                : ResponseEntity.status(HttpStatus.CREATED);
+        if (placed.replayed()) {
+            response.header("Idempotent-Replayed", "true");
+        }
+        return response.body(placed.order());
     }
 
-    // Customer: View own orders
+    // Customer: View own orders (?status=&from=&to=&page=|cursor=&size=&view=summary)
     @GetMapping("/my")
-    public ResponseEntity<List<OrderResponse>> viewOwnOrders(Authentication auth) {
-        return ResponseEntity.ok(orderService.viewOwnOrders(auth));
+    public ResponseEntity<PageResponse<?>> viewOwnOrders(OrderQuery query, Authentication auth) {
+        if (query.isSummaryView()) {
+            return ResponseEntity.ok(orderService.viewOwnOrderSummaries(query, auth));
+        }
+        return ResponseEntity.ok(orderService.viewOwnOrders(query, auth));
     }
 
-    // Admin: View all orders
+    // Admin: View all orders (?status=&from=&to=&page=|cursor=&size=&view=summary)
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> viewAllOrders(Authentication auth) {
-        return ResponseEntity.ok(orderService.viewAllOrders(auth));
+    public ResponseEntity<PageResponse<?>> viewAllOrders(OrderQuery query, Authentication auth) {
+        if (query.isSummaryView()) {
+            return ResponseEntity.ok(orderService.viewAllOrderSummaries(query, auth));
+        }
+        return ResponseEntity.ok(orderService.viewAllOrders(query, auth));
+    }
+
+    // Server-sent order events (admins: all, customers: own). Resume with ?from=<offset> or Last-Event-ID;
+    // with neither, only new events are sent
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Long from,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                   Authentication auth) {
+        return orderService.streamEvents(from != null ? from : lastEventId, auth);
+    }
+
+    // Admin, or the owning customer: one order with its items
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable Long orderId, Authentication auth) {
+        return ResponseEntity.ok(orderService.getOrder(orderId, auth));
+    }
+
+    // Admin, or the owning customer: CREATED while queued, then CONFIRMED or CANCELLED (with the reason)
+    @GetMapping("/{orderId}/status")
+    public ResponseEntity<OrderStatusResponse> getOrderStatus(@PathVariable Long orderId, Authentication auth) {
+        return ResponseEntity.ok(orderService.getOrderStatus(orderId, auth));
     }
 
     // Admin: Update order status
@@ -45,4 +93,12 @@ public class OrderController {
                                                            Authentication auth) {
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, status, auth));
     }
+
+    // -----------------------------
+    private PlacedOrder place(OrderRequest request, Authentication auth, String idempotencyKey) {
+        if (orderService.isAsyncOrders()) {
+            return new PlacedOrder(orderService.submitOrder(request, auth), true, false);
+        }
+        return new PlacedOrder(orderService.placeOrder(request, auth, idempotencyKey), false, false);
+    }
 }
@@ -1,33 +1,95 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.ProductBrowseResponse;
+import com.example.ecommerce.dto.ProductImportReport;
 import com.example.ecommerce.dto.ProductRequest;
 import com.example.ecommerce.dto.ProductResponse;
+import com.example.ecommerce.dto.ProductSearchResponse;
+import com.example.ecommerce.service.ProductBulkService;
 import com.example.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final CatalogResponses catalogResponses;
+    private final ProductBulkService productBulkService;
 
     // Public endpoints
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> listAllProducts() {
-        return ResponseEntity.ok(productService.listAllProducts());
+    public ResponseEntity<byte[]> listProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request) {
+        return catalogResponses.respond(request, "products:" + cursor + ":" + size,
+                () -> productService.listProducts(cursor, size));
+    }
+
+    // One JSON object per line, written while the database cursor is still open
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = out -> productService.streamAllProducts(product -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().header("Content-Type", NDJSON).body(body);
+    }
+
+    // ?q=&minPrice=&maxPrice=&categoryId=&prefix=true (search-as-you-type)&fuzzy=true (one typo per term)&size=
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.searchProducts(q, minPrice, maxPrice, categoryId, prefix, fuzzy, size));
+    }
+
+    // ?categoryId=&minPrice=&maxPrice=&inStock=true&sort=id|price|price,desc&cursor=&size=
+    // Served from the in-memory column store, with product counts per category for the same filters
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseResponse> browseProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.browseProducts(categoryId, minPrice, maxPrice, inStock, sort, cursor, size));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<ProductResponse>> getByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+    public ResponseEntity<byte[]> getByCategory(@PathVariable Long categoryId, HttpServletRequest request) {
+        return catalogResponses.respond(request, "products:category:" + categoryId,
+                () -> productService.getProductsByCategory(categoryId));
     }
 
     // Admin-only endpoints
@@ -46,6 +108,28 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, request, auth));
     }
 
+    // CSV with a header row (id,name,description,price,stock,category, optionally currency) or NDJSON; rows with an id update
+    // that product, rows without one create a product. Answers with per-row errors once the stream is consumed.
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<ProductImportReport> importProducts(HttpServletRequest request,
+                                                              Authentication auth) throws IOException {
+        MediaType format = MediaType.parseMediaType(request.getContentType());
+        return ResponseEntity.ok(productBulkService.importProducts(request.getInputStream(), format, auth));
+    }
+
+    // ?format=csv (default) or ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication auth) {
+        MediaType type = format.equalsIgnoreCase("ndjson") ? ProductBulkService.NDJSON : ProductBulkService.CSV;
+        String extension = type == ProductBulkService.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + extension + "\"")
+                .body(productBulkService.exportProducts(type, auth));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(
             @PathVariable Long id,
@@ -0,0 +1,12 @@
+package com.example.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CategoryFacet {
+    private Long categoryId;
+    private String categoryName;
+    private int count;
+}
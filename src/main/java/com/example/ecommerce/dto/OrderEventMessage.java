@@ -0,0 +1,18 @@
+package com.example.ecommerce.dto;
+
+import com.example.ecommerce.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// One published order lifecycle event; offsets are contiguous and follow publish order
+@Getter
+@AllArgsConstructor
+public class OrderEventMessage {
+    private long offset;
+    private Long orderId;
+    private String username;
+    private OrderStatus status;
+    private LocalDateTime occurredAt;
+}
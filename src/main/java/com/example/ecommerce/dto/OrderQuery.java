@@ -0,0 +1,30 @@
+package com.example.ecommerce.dto;
+
+import com.example.ecommerce.entity.OrderStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Query parameters for the order history endpoints; use either page or cursor
+@Getter
+@Setter
+public class OrderQuery {
+    private OrderStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // inclusive, on createdAt
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // exclusive, on createdAt
+
+    private Integer page;
+    private String cursor;
+    private Integer size;
+    private String view; // "summary" for headers only, anything else for full orders with items
+
+    public boolean isSummaryView() {
+        return "summary".equalsIgnoreCase(view);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ecommerce.entity.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,14 +17,15 @@ public class OrderResponse {
     private OrderStatus status;
     private LocalDateTime createdAt;
     private List<OrderItemResponse> items;
-    private double total;
+    private BigDecimal total;
+    private String currency;
 
     @Getter
     @Setter
     public static class OrderItemResponse {
         private Long productId;
         private String productName;
-        private double price;
+        private BigDecimal price;
         private int quantity;
     }
 }
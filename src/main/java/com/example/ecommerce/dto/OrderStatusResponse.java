@@ -0,0 +1,14 @@
+package com.example.ecommerce.dto;
+
+import com.example.ecommerce.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Poll target for orders accepted by the async pipeline
+@Getter
+@AllArgsConstructor
+public class OrderStatusResponse {
+    private Long id;
+    private OrderStatus status;
+    private String reason; // why it was cancelled, if it was
+}
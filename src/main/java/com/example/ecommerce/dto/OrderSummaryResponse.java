@@ -0,0 +1,29 @@
+package com.example.ecommerce.dto;
+
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.money.Money;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Order header only; built straight from the ORDERS row, items are never loaded
+@Getter
+public class OrderSummaryResponse {
+    private Long id;
+    private String username;
+    private OrderStatus status;
+    private BigDecimal total;
+    private String currency;
+    private LocalDateTime createdAt;
+
+    public OrderSummaryResponse(Long id, String username, OrderStatus status, long totalMinor, String currency,
+                                LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.status = status;
+        this.total = Money.toDecimal(totalMinor, currency);
+        this.currency = currency;
+        this.createdAt = createdAt;
+    }
+}
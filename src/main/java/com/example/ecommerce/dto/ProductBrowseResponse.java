@@ -0,0 +1,15 @@
+package com.example.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductBrowseResponse {
+    private List<ProductResponse> items;
+    private String nextCursor; // null when there are no more rows
+    private int totalHits;
+    private List<CategoryFacet> facets; // most products first
+}
@@ -0,0 +1,24 @@
+package com.example.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductImportReport {
+    private long rows;
+    private long created;
+    private long updated;
+    private long failed;
+    private List<RowError> errors; // capped at app.catalog.import.max-errors
+    private boolean errorsTruncated;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
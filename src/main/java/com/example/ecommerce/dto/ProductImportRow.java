@@ -0,0 +1,22 @@
+package com.example.ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// One CSV record or NDJSON line of a bulk import; an id updates that product, no id creates one
+@Getter
+@Setter
+public class ProductImportRow {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String currency; // optional; must be the store currency when given
+    private Integer stock;
+
+    @JsonAlias("categoryName") // so the export / stream format imports unchanged
+    private String category;
+}
@@ -3,12 +3,14 @@ package com.example.ecommerce.dto;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
 public class ProductRequest {
     private String name;
     private String description;
-    private double price;
+    private BigDecimal price; // in the store currency
     private int stock;
     private Long categoryId;
 }
@@ -1,15 +1,29 @@
 package com.example.ecommerce.dto;
 
+import com.example.ecommerce.money.Money;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductResponse {
     private Long id;
     private String name;
     private String description;
-    private double price;
+    private BigDecimal price; // exact, serialized as a JSON number with the currency's decimals
+    private String currency;
     private int stock;
     private String categoryName;
+
+    // used by the JPQL constructor projections in ProductRepository, which read the minor-unit column
+    public ProductResponse(Long id, String name, String description, long priceMinor, String currency,
+                           int stock, String categoryName) {
+        this(id, name, description, Money.toDecimal(priceMinor, currency), currency, stock, categoryName);
+    }
 }
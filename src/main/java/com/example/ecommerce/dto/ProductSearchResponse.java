@@ -0,0 +1,14 @@
+package com.example.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Best matches first; totalHits counts every match that passed the filters
+@Getter
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private List<ProductResponse> items;
+    private int totalHits;
+}
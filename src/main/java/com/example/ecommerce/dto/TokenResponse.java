@@ -0,0 +1,13 @@
+package com.example.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TokenResponse {
+    private String accessToken;
+    private String refreshToken; // single use: POST /api/auth/refresh answers with a new pair
+    private String tokenType;
+    private long expiresIn; // seconds until the access token expires
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// An Idempotency-Key that placed an order, written in that order's transaction. The primary key makes a
+// duplicate placed at the same time on another node fail and roll back instead of ordering twice.
+@Entity
+@Table(name = "IDEMPOTENCY_KEYS", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at") // purge
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 320)
+    private String scopedKey; // hash(username):key, so two users' keys never collide
+
+    private String fingerprint; // of the order lines, to catch a key reused for a different order
+
+    private Long orderId;
+
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "ORDERS")
+@Table(name = "ORDERS", indexes = {
+        @Index(name = "idx_orders_username_created_at", columnList = "username, created_at"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +21,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String username; // Customer who placed the order
@@ -28,9 +32,14 @@ public class Order {
 
     private LocalDateTime createdAt;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    @JoinColumn(name = "order_id")
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false, updatable = false) // written with the item INSERT instead of a follow-up UPDATE
     private List<OrderItem> items;
 
-    private double total;
+    private long totalMinor; // sum of the lines, in minor units of currency
+
+    @Column(length = 3)
+    private String currency; // ISO 4217
+
+    private String cancelReason; // set when the async pipeline cancels the order
 }
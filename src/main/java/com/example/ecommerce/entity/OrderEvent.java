@@ -0,0 +1,46 @@
+package com.example.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Outbox row, written in the same transaction as the order change it describes
+@Entity
+@Table(name = "ORDER_EVENTS", indexes = {
+        @Index(name = "idx_order_events_stream_offset", columnList = "stream_offset") // null = not relayed yet
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    private Long orderId;
+
+    private String username;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status; // status the order moved to
+
+    private LocalDateTime occurredAt;
+
+    private Long streamOffset; // assigned by the relay in publish order
+
+    public static OrderEvent of(Order order) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(order.getId());
+        event.setUsername(order.getUsername());
+        event.setStatus(order.getStatus());
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+}
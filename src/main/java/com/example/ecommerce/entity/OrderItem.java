@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "ORDER_ITEMS")
+@Table(name = "ORDER_ITEMS", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id") // join column owned by Order.items
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,14 +17,15 @@ import lombok.Setter;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     private Long productId;
 
     private String productName;
 
-    private double price;
+    private long priceMinor; // unit price when ordered, in minor units of the order's currency
 
     private int quantity;
 }
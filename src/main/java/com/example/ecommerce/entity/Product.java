@@ -5,7 +5,9 @@ import lombok.*;
 
 
 @Entity
-@Table(name = "PRODUCTS")
+@Table(name = "PRODUCTS", indexes = {
+        @Index(name = "idx_products_category_id", columnList = "category_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,15 +15,20 @@ import lombok.*;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String description;
-    private double price;
+    private long priceMinor; // in minor units of currency, e.g. cents
+
+    @Column(length = 3)
+    private String currency; // ISO 4217
+
     private int stock;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 }
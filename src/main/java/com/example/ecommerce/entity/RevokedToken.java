@@ -0,0 +1,30 @@
+package com.example.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// A revoked access or refresh token, kept until the token would have expired anyway
+@Entity
+@Table(name = "REVOKED_TOKENS", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"), // incremental sync between nodes
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String tokenId; // the token's jti
+
+    private Instant expiresAt;
+
+    private Instant revokedAt;
+}
@@ -0,0 +1,101 @@
+package com.example.ecommerce.events;
+
+import com.example.ecommerce.dto.OrderEventMessage;
+import com.example.ecommerce.entity.OrderEvent;
+import com.example.ecommerce.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Moves outbox rows to the sinks: claims a batch by stamping contiguous stream offsets, commits, then
+// publishes. Assumes a single relay per database (one application instance).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.orders.events.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OrderEventRelay {
+
+    private final OrderEventRepository orderEventRepository;
+    private final List<OrderEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    private long lastOffset = -1; // only touched by the scheduler thread
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository,
+                           List<OrderEventSink> sinks,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.orders.events.relay-batch-size:500}") int batchSize,
+                           @Value("${app.orders.events.retention:7d}") Duration retention) {
+        this.orderEventRepository = orderEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.events.relay-delay-ms:200}")
+    public void relay() {
+        List<OrderEventMessage> batch;
+        do {
+            try {
+                batch = transactionTemplate.execute(status -> claimBatch());
+            } catch (RuntimeException e) {
+                lastOffset = -1; // offsets handed out in the failed transaction were never committed
+                throw e;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (OrderEventSink sink : sinks) {
+                try {
+                    sink.publish(batch);
+                } catch (RuntimeException e) {
+                    log.error("Order event sink {} failed on offsets {}..{}", sink.getClass().getSimpleName(),
+                            batch.get(0).getOffset(), batch.get(batch.size() - 1).getOffset(), e);
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // Published rows stay around for clients resuming from an old offset, up to the retention period. The row
+    // with the highest offset always stays: claimBatch continues from it after a restart, so offsets never go back.
+    @Scheduled(fixedDelayString = "${app.orders.events.purge-delay-ms:3600000}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status -> {
+            Long max = orderEventRepository.findMaxStreamOffset();
+            return max == null ? 0 : orderEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention), max);
+        });
+        if (purged != null && purged > 0) {
+            log.info("Purged {} published order events", purged);
+        }
+    }
+
+    // -----------------------------
+    private List<OrderEventMessage> claimBatch() {
+        if (lastOffset < 0) {
+            Long max = orderEventRepository.findMaxStreamOffset();
+            lastOffset = max != null ? max : 0;
+        }
+        List<OrderEvent> events = orderEventRepository.findByStreamOffsetIsNullOrderById(Limit.of(batchSize));
+        for (OrderEvent event : events) {
+            event.setStreamOffset(++lastOffset); // flushed as one batched UPDATE on commit
+        }
+        return events.stream().map(OrderEventRelay::toMessage).collect(Collectors.toList());
+    }
+
+    static OrderEventMessage toMessage(OrderEvent event) {
+        return new OrderEventMessage(event.getStreamOffset(), event.getOrderId(), event.getUsername(),
+                event.getStatus(), event.getOccurredAt());
+    }
+}
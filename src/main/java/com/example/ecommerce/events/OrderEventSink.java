@@ -0,0 +1,12 @@
+package com.example.ecommerce.events;
+
+import com.example.ecommerce.dto.OrderEventMessage;
+
+import java.util.List;
+
+// Where the outbox relay delivers events; every sink bean receives every batch, in offset order.
+// A batch is handed over after its offsets are committed, so a sink that throws does not stall the relay.
+public interface OrderEventSink {
+
+    void publish(List<OrderEventMessage> events);
+}
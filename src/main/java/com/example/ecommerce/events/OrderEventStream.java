@@ -0,0 +1,260 @@
+package com.example.ecommerce.events;
+
+import com.example.ecommerce.dto.OrderEventMessage;
+import com.example.ecommerce.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Default sink: keeps the most recent events in memory and fans them out to SSE subscribers.
+// A subscriber resuming from an offset older than the buffer is first replayed from the outbox table.
+// The relay only queues events per subscriber; sending happens on the executor, so a slow client never holds
+// up the relay. A client whose queue overflows is disconnected and can resume with Last-Event-ID.
+@Slf4j
+@Component
+public class OrderEventStream implements OrderEventSink {
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private final OrderEventRepository orderEventRepository;
+    private final AsyncTaskExecutor executor;
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final Duration timeout;
+
+    private final ArrayDeque<OrderEventMessage> buffer = new ArrayDeque<>(); // guarded by itself
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public OrderEventStream(OrderEventRepository orderEventRepository,
+                            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                            @Value("${app.orders.events.buffer-size:10000}") int bufferSize,
+                            @Value("${app.orders.events.subscriber-queue-size:1000}") int subscriberQueueSize,
+                            @Value("${app.orders.events.sse-timeout:30m}") Duration timeout) {
+        this.orderEventRepository = orderEventRepository;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeout = timeout;
+    }
+
+    // Streams every visible event after fromOffset (null = only what happens from now on)
+    public SseEmitter subscribe(Long fromOffset, Predicate<OrderEventMessage> visible) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, visible, fromOffset != null ? fromOffset : headOffset(), subscriberQueueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            // commits the response headers right away, even if no visible event follows for a while
+            emitter.send(SseEmitter.event().comment("from offset " + subscriber.offset));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        executor.execute(() -> catchUp(subscriber)); // replay happens off the request thread
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<OrderEventMessage> events) {
+        synchronized (buffer) {
+            for (OrderEventMessage event : events) {
+                if (buffer.size() == bufferSize) {
+                    buffer.removeFirst();
+                }
+                buffer.addLast(event);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.enqueue(events)) {
+                subscribers.remove(subscriber); // overflowed; the drain task disconnects it
+            }
+            if (subscriber.startDrain()) {
+                try {
+                    executor.execute(() -> drain(subscriber));
+                } catch (RuntimeException e) {
+                    subscribers.remove(subscriber);
+                    log.warn("Could not schedule SSE delivery; dropping subscriber", e);
+                }
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // -----------------------------
+    private long headOffset() {
+        synchronized (buffer) {
+            if (!buffer.isEmpty()) {
+                return buffer.getLast().getOffset();
+            }
+        }
+        Long max = orderEventRepository.findMaxStreamOffset();
+        return max != null ? max : 0;
+    }
+
+    // Replays from the table until the buffer covers the subscriber's offset, then goes live. Holding the
+    // subscriber's lock while it joins means a concurrent drain waits and only sends what comes after.
+    private void catchUp(Subscriber subscriber) {
+        try {
+            while (true) {
+                while (subscriber.offset + 1 < oldestBufferedOffset()) {
+                    List<OrderEventMessage> page = orderEventRepository
+                            .findByStreamOffsetGreaterThanOrderByStreamOffset(subscriber.offset, Limit.of(REPLAY_PAGE_SIZE))
+                            .stream().map(OrderEventRelay::toMessage).collect(Collectors.toList());
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    subscriber.deliver(page);
+                }
+
+                List<OrderEventMessage> tail = null;
+                subscriber.lock.lock();
+                try {
+                    synchronized (buffer) {
+                        if (buffer.isEmpty() || buffer.getFirst().getOffset() <= subscriber.offset + 1) {
+                            tail = new ArrayList<>(buffer);
+                            subscribers.add(subscriber);
+                        }
+                    }
+                    if (tail != null) {
+                        subscriber.deliver(tail);
+                        return;
+                    }
+                } finally {
+                    subscriber.lock.unlock();
+                }
+                // the buffer rolled past us while replaying; go back to the table
+            }
+        } catch (IOException | RuntimeException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    // Sends a subscriber's queued events in order; at most one drain per subscriber runs at a time
+    private void drain(Subscriber subscriber) {
+        try {
+            List<OrderEventMessage> events;
+            while ((events = subscriber.poll()) != null) {
+                subscriber.deliver(events);
+            }
+            if (subscriber.overflowed()) {
+                log.info("SSE subscriber overflowed its queue of {} events; disconnecting it", subscriberQueueSize);
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | RuntimeException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private long oldestBufferedOffset() {
+        synchronized (buffer) {
+            return buffer.isEmpty() ? Long.MAX_VALUE : buffer.getFirst().getOffset();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Predicate<OrderEventMessage> visible;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long offset; // last offset handed to this subscriber, guarded by lock
+
+        // Live events waiting for the drain task, guarded by queue
+        private final ArrayDeque<List<OrderEventMessage>> queue = new ArrayDeque<>();
+        private final int queueCapacity; // in events
+        private int queued;
+        private boolean draining;
+        private boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, Predicate<OrderEventMessage> visible, long offset, int queueCapacity) {
+            this.emitter = emitter;
+            this.visible = visible;
+            this.offset = offset;
+            this.queueCapacity = queueCapacity;
+        }
+
+        // Never blocks; false once the subscriber has overflowed, after which its queue is discarded
+        private boolean enqueue(List<OrderEventMessage> events) {
+            synchronized (queue) {
+                if (overflowed || queued + events.size() > queueCapacity) {
+                    overflowed = true;
+                    queue.clear();
+                    queued = 0;
+                    return false;
+                }
+                queue.addLast(events);
+                queued += events.size();
+                return true;
+            }
+        }
+
+        // True if the caller must schedule a drain
+        private boolean startDrain() {
+            synchronized (queue) {
+                if (draining || (queue.isEmpty() && !overflowed)) {
+                    return false;
+                }
+                draining = true;
+                return true;
+            }
+        }
+
+        // Next queued events, or null when there are none left (the drain then ends)
+        private List<OrderEventMessage> poll() {
+            synchronized (queue) {
+                List<OrderEventMessage> events = queue.pollFirst();
+                if (events == null) {
+                    draining = false;
+                } else {
+                    queued -= events.size();
+                }
+                return events;
+            }
+        }
+
+        private boolean overflowed() {
+            synchronized (queue) {
+                return overflowed;
+            }
+        }
+
+        // Skips anything already sent, so replay, buffer and live delivery may overlap freely
+        private void deliver(List<OrderEventMessage> events) throws IOException {
+            lock.lock();
+            try {
+                for (OrderEventMessage event : events) {
+                    if (event.getOffset() <= offset) {
+                        continue;
+                    }
+                    if (visible.test(event)) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getOffset()))
+                                .name("order")
+                                .data(event));
+                    }
+                    offset = event.getOffset();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.ecommerce.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Service-level meters, registered once. Actuator already records http.server.requests per endpoint,
+// hikaricp.* pool gauges and jvm.*; percentiles and histograms for all of them are set in application.yml.
+@Component
+public class ServiceMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer orderValidation;
+    private final Timer orderReservation;
+    private final Timer orderPersist;
+    private final Timer orderBatch;
+    private final Counter insufficientStockSync;
+    private final Counter insufficientStockAsync;
+    private final Counter idempotentReplays;
+
+    private final Timer catalogPage;
+    private final Timer catalogCategory;
+    private final Timer catalogSearch;
+    private final Timer catalogBrowse;
+
+    private final Timer jwtParseValid;
+    private final Timer jwtParseInvalid;
+    private final Timer loginAccepted;
+    private final Timer loginRejected;
+
+    public ServiceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.orderValidation = orderPhase("validation");
+        this.orderReservation = orderPhase("reservation");
+        this.orderPersist = orderPhase("persist");
+        this.orderBatch = Timer.builder("orders.pipeline.batch")
+                .description("One async micro-batch: lock, allocate, write, commit")
+                .register(registry);
+        this.insufficientStockSync = insufficientStock("sync");
+        this.insufficientStockAsync = insufficientStock("async");
+        this.idempotentReplays = Counter.builder("orders.idempotent.replays")
+                .description("Order requests answered with the result of an earlier request with the same Idempotency-Key")
+                .register(registry);
+
+        this.catalogPage = catalogRead("page");
+        this.catalogCategory = catalogRead("category");
+        this.catalogSearch = catalogRead("search");
+        this.catalogBrowse = catalogRead("browse");
+
+        this.jwtParseValid = jwtParseTimer("valid");
+        this.jwtParseInvalid = jwtParseTimer("invalid");
+        this.loginAccepted = loginTimer("accepted");
+        this.loginRejected = loginTimer("rejected");
+    }
+
+    // ---------- orders ----------
+
+    public Timer orderValidation() {
+        return orderValidation;
+    }
+
+    public Timer orderReservation() {
+        return orderReservation;
+    }
+
+    // The order rows are only flushed at commit, so the persist phase ends after it
+    public void recordPersistAfterCommit(Timer.Sample sample) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sample.stop(orderPersist);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sample.stop(orderPersist);
+            }
+        });
+    }
+
+    public Timer orderBatch() {
+        return orderBatch;
+    }
+
+    public void insufficientStock(boolean async) {
+        (async ? insufficientStockAsync : insufficientStockSync).increment();
+    }
+
+    public void idempotentReplay() {
+        idempotentReplays.increment();
+    }
+
+    // entity: product, category, order, user. Rare, so looked up per call.
+    public void notFound(String entity) {
+        registry.counter("lookups.not.found", "entity", entity).increment();
+    }
+
+    // ---------- catalog ----------
+
+    public Timer catalogPage() {
+        return catalogPage;
+    }
+
+    public Timer catalogCategory() {
+        return catalogCategory;
+    }
+
+    public Timer catalogSearch() {
+        return catalogSearch;
+    }
+
+    public Timer catalogBrowse() {
+        return catalogBrowse;
+    }
+
+    // ---------- security ----------
+
+    // Only cache misses reach the parser; hits cost a map lookup
+    public Timer jwtParse(boolean valid) {
+        return valid ? jwtParseValid : jwtParseInvalid;
+    }
+
+    // Password check (plus rehash and token signing when it passes) on the hashing pool
+    public Timer login(boolean accepted) {
+        return accepted ? loginAccepted : loginRejected;
+    }
+
+    // route: the matching app.rate-limit rule. Looked up per call; only rejected requests get here.
+    public void rateLimited(String route) {
+        registry.counter("http.rate.limited", "route", route).increment();
+    }
+
+    // -----------------------------
+    private Timer orderPhase(String phase) {
+        return Timer.builder("orders.place")
+                .description("Synchronous order placement, by phase")
+                .tag("phase", phase)
+                .register(registry);
+    }
+
+    private Counter insufficientStock(String mode) {
+        return Counter.builder("orders.insufficient.stock")
+                .description("Orders rejected or cancelled for lack of stock")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    private Timer catalogRead(String operation) {
+        return Timer.builder("catalog.read")
+                .description("ProductService reads, cache hits included")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private Timer jwtParseTimer(String outcome) {
+        return Timer.builder("jwt.parse")
+                .description("Signature check and claim parsing of a bearer token")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("auth.login")
+                .description("Password verification and token issuance, queueing excluded")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
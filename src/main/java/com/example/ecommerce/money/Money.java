@@ -0,0 +1,76 @@
+package com.example.ecommerce.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// Amounts are longs counting a currency's minor unit (cents for USD, yen for JPY), so sums and products are exact
+// and allocation-free. BigDecimal only appears at the API edge, to read and write those amounts exactly.
+public final class Money {
+
+    private static final int MAX_LONG_DIGITS = 19; // Long.MAX_VALUE has 19 digits
+
+    private Money() {
+    }
+
+    // Exact: an amount with more decimals than the currency has is rejected, not rounded
+    public static long toMinor(BigDecimal amount, String currency) {
+        int digits = fractionDigits(currency);
+        // Checked on precision and scale first: scaling a value like 1e20000000 would build a 20M-digit number
+        if (integerDigits(amount) + digits > MAX_LONG_DIGITS
+                || (amount.scale() > digits && amount.stripTrailingZeros().scale() > digits)) {
+            throw notMinorUnits(amount, currency);
+        }
+        try {
+            return amount.movePointRight(digits).longValueExact();
+        } catch (ArithmeticException e) {
+            throw notMinorUnits(amount, currency);
+        }
+    }
+
+    // For bounds, where the nearest amount in one direction is what is meant (CEILING, FLOOR and the like);
+    // clamps instead of overflowing
+    public static long toMinor(BigDecimal amount, String currency, RoundingMode rounding) {
+        int digits = fractionDigits(currency);
+        int magnitude = integerDigits(amount) + digits;
+        if (magnitude > MAX_LONG_DIGITS) {
+            return amount.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        if (magnitude <= 0 && amount.signum() != 0) {
+            // Under one minor unit; rounding +-0.1 gives the same whole unit without scaling a huge fraction
+            amount = BigDecimal.valueOf(amount.signum(), 1);
+            digits = 0;
+        }
+        BigDecimal minor = amount.movePointRight(digits).setScale(0, rounding);
+        if (minor.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (minor.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return minor.longValue();
+    }
+
+    public static BigDecimal toDecimal(long minor, String currency) {
+        return BigDecimal.valueOf(minor, fractionDigits(currency));
+    }
+
+    // unit price * quantity; fails instead of wrapping around
+    public static long times(long unitMinor, int quantity) {
+        return Math.multiplyExact(unitMinor, quantity);
+    }
+
+    public static int fractionDigits(String currency) {
+        return Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits()); // -1 for codes such as XXX
+    }
+
+    // Digits before the decimal point; zero or negative for amounts under one
+    private static int integerDigits(BigDecimal amount) {
+        return amount.precision() - amount.scale();
+    }
+
+    private static IllegalArgumentException notMinorUnits(BigDecimal amount, String currency) {
+        return new IllegalArgumentException("Amount " + amount + " is not a whole number of " + currency
+                + " minor units that fits in a long");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ecommerce.money;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// The currency the catalog is priced in (app.money.currency, ISO 4217). Product and order rows also record the
+// currency they were written in, so changing this never reinterprets an existing price or total.
+@Component
+public class StoreCurrency {
+
+    private final String code;
+
+    public StoreCurrency(@Value("${app.money.currency:USD}") String code) {
+        this.code = Currency.getInstance(code).getCurrencyCode();
+    }
+
+    public String code() {
+        return code;
+    }
+
+    // Prices sent by clients: must be zero or more and fit the currency's minor unit exactly
+    public long price(BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            throw new IllegalArgumentException("Price must be zero or more");
+        }
+        return Money.toMinor(amount, code);
+    }
+
+    // Filter bounds: a minimum rounds up and a maximum down to the nearest minor unit; null means unbounded
+    public Long lowerBound(BigDecimal min) {
+        return min != null ? Money.toMinor(min, code, RoundingMode.CEILING) : null;
+    }
+
+    public Long upperBound(BigDecimal max) {
+        return max != null ? Money.toMinor(max, code, RoundingMode.FLOOR) : null;
+    }
+}
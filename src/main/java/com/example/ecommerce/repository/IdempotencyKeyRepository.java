@@ -0,0 +1,25 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // A plain insert, run immediately: save() would merge into a row another node already committed
+    @Modifying
+    @Query(value = "insert into idempotency_keys (scoped_key, fingerprint, order_id, created_at) "
+            + "values (:scopedKey, :fingerprint, :orderId, :createdAt)", nativeQuery = true)
+    int insert(@Param("scopedKey") String scopedKey,
+               @Param("fingerprint") String fingerprint,
+               @Param("orderId") Long orderId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,57 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.entity.OrderEvent;
+import com.example.ecommerce.entity.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Inserts orders whose ids were assigned up front (see SequenceIds); a whole micro-batch is two JDBC batches
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String INSERT_ORDER_SQL =
+            "insert into orders (id, username, status, created_at, total_minor, currency, cancel_reason) "
+                    + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "insert into order_items (id, order_id, product_id, product_name, price_minor, quantity) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EVENT_SQL =
+            "insert into order_events (id, order_id, username, status, occurred_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Every order and item must already carry its id. Must run in the caller's transaction.
+    public void insertAll(List<Order> orders) {
+        List<Object[]> orderRows = new ArrayList<>(orders.size());
+        List<Object[]> itemRows = new ArrayList<>();
+        for (Order order : orders) {
+            orderRows.add(new Object[]{order.getId(), order.getUsername(), order.getStatus().name(),
+                    order.getCreatedAt(), order.getTotalMinor(), order.getCurrency(), order.getCancelReason()});
+            for (OrderItem item : order.getItems()) {
+                itemRows.add(new Object[]{item.getId(), order.getId(), item.getProductId(),
+                        item.getProductName(), item.getPriceMinor(), item.getQuantity()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+        if (!itemRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+        }
+    }
+
+    // Outbox rows for the orders above, in the same transaction; ids must already be assigned
+    public void insertEvents(List<OrderEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            rows.add(new Object[]{event.getId(), event.getOrderId(), event.getUsername(),
+                    event.getStatus().name(), event.getOccurredAt()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.OrderEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    // Outbox rows the relay has not published yet, oldest first
+    List<OrderEvent> findByStreamOffsetIsNullOrderById(Limit limit);
+
+    // Published history for stream clients resuming from an offset
+    List<OrderEvent> findByStreamOffsetGreaterThanOrderByStreamOffset(long streamOffset, Limit limit);
+
+    @Query("select max(e.streamOffset) from OrderEvent e")
+    Long findMaxStreamOffset();
+
+    // Keeps offsets at or above keepFrom, so the highest one handed out survives and is never reused after a restart
+    @Modifying
+    @Query("delete from OrderEvent e where e.streamOffset < :keepFrom and e.occurredAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("keepFrom") long keepFrom);
+}
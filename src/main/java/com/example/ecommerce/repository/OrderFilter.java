@@ -0,0 +1,9 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Optional predicates for order history queries; null means "don't filter"
+public record OrderFilter(String username, OrderStatus status, LocalDateTime from, LocalDateTime to, Long beforeId) {
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.OrderSummaryResponse;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // Ids of one page of matching orders, newest first; items are fetched separately for just these ids
+    List<Long> findPageIds(OrderFilter filter, int offset, int limit);
+
+    // Same page, projected to headers in a single query that never touches ORDER_ITEMS
+    List<OrderSummaryResponse> findSummaries(OrderFilter filter, int offset, int limit);
+}
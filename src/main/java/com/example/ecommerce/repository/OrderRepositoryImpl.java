@@ -0,0 +1,78 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.OrderSummaryResponse;
+import com.example.ecommerce.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findPageIds(OrderFilter filter, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(order.get("id"))
+                .where(predicates(cb, order, filter))
+                .orderBy(cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<OrderSummaryResponse> findSummaries(OrderFilter filter, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(cb.construct(OrderSummaryResponse.class,
+                        order.get("id"),
+                        order.get("username"),
+                        order.get("status"),
+                        order.get("totalMinor"),
+                        order.get("currency"),
+                        order.get("createdAt")))
+                .where(predicates(cb, order, filter))
+                .orderBy(cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // -----------------------------
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Order> order, OrderFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.username() != null) {
+            predicates.add(cb.equal(order.get("username"), filter.username()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(order.get("status"), filter.status()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("createdAt"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(order.get("createdAt"), filter.to()));
+        }
+        if (filter.beforeId() != null) {
+            predicates.add(cb.lessThan(order.get("id"), filter.beforeId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
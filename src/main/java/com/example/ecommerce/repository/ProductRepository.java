@@ -1,13 +1,63 @@
 package com.example.ecommerce.repository;
 
+import com.example.ecommerce.browse.ProductRow;
+import com.example.ecommerce.dto.ProductResponse;
 import com.example.ecommerce.entity.Category;
 import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.search.SearchDocument;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Read path: builds ProductResponse rows in the same joined SELECT, so no entity or category is loaded
+    String SELECT_RESPONSE = "select new com.example.ecommerce.dto.ProductResponse("
+            + "p.id, p.name, p.description, p.priceMinor, p.currency, p.stock, c.name) "
+            + "from Product p left join p.category c ";
+
     List<Product> findByCategory(Category category);
+
+    // Keyset page: seeks on the primary key instead of OFFSET
+    @Query(SELECT_RESPONSE + "where p.id > :afterId order by p.id")
+    List<ProductResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // No explicit join, so p.category.id is read from products.category_id and idx_products_category_id
+    // applies; filtering on the joined c.id made H2 scan products
+    @Query("select new com.example.ecommerce.dto.ProductResponse("
+            + "p.id, p.name, p.description, p.priceMinor, p.currency, p.stock, p.category.name) "
+            + "from Product p where p.category.id = :categoryId order by p.id")
+    List<ProductResponse> findResponsesByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Cursor-backed scan for streaming; must be consumed inside a transaction
+    @Query(SELECT_RESPONSE + "order by p.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductResponse> streamAllResponses();
+
+    // Search hits, re-read so results always show current stock and price; order is the caller's job
+    @Query(SELECT_RESPONSE + "where p.id in :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Search index build; must be consumed inside a transaction
+    @Query("select new com.example.ecommerce.search.SearchDocument(p.id, p.name, p.description, p.priceMinor, c.id) "
+            + "from Product p left join p.category c order by p.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Column store load; must be consumed inside a transaction
+    @Query("select new com.example.ecommerce.browse.ProductRow(p.id, p.name, p.description, p.priceMinor, "
+            + "p.currency, p.stock, c.id, c.name) from Product p left join p.category c order by p.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<ProductRow> streamProductRows();
 }
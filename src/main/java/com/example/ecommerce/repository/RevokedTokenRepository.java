@@ -0,0 +1,28 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // A plain insert, so a token another node already revoked fails on the primary key; save() would merge
+    @Modifying
+    @Query(value = "insert into revoked_tokens (token_id, expires_at, revoked_at) "
+            + "values (:tokenId, :expiresAt, :revokedAt)", nativeQuery = true)
+    int insert(@Param("tokenId") String tokenId,
+               @Param("expiresAt") Instant expiresAt,
+               @Param("revokedAt") Instant revokedAt);
+
+    // Revocations made (on any node) since the last sync, still in force
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant revokedSince, Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,97 @@
+package com.example.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+// Stock writes that bypass the persistence context so a whole cart goes out as one JDBC batch
+@Repository
+@RequiredArgsConstructor
+public class StockRepository {
+
+    private static final String DECREMENT_SQL =
+            "update products set stock = stock - ? where id = ? and stock >= ?";
+
+    private static final String LOCK_SQL =
+            "select id, name, price_minor, currency, stock, category_id from products where id in (%s) order by id for update";
+
+    private static final String SET_STOCK_SQL = "update products set stock = ? where id = ?";
+
+    private static final String STOCK_SQL = "select id, stock from products where id in (%s)";
+
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // What the order pipeline needs from a product row it holds locked
+    public record LockedProduct(long id, String name, long priceMinor, String currency, int stock, Long categoryId) {
+    }
+
+    // Applies every conditional decrement in one batch, in key order, and returns the
+    // product ids whose row was not updated (not enough stock). Must run in the caller's transaction.
+    public List<Long> decrementAll(SortedMap<Long, Integer> quantities) {
+        List<Object[]> batch = new ArrayList<>(quantities.size());
+        List<Long> productIds = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            batch.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+            productIds.add(entry.getKey());
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, batch);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(productIds.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    // Row-locks the given products in id order (so concurrent batches never deadlock) and returns them by id;
+    // ids with no row are simply absent. Chunks go out in ascending order too, so the lock order holds across
+    // them. Must run in the caller's transaction.
+    public Map<Long, LockedProduct> lockAll(SortedSet<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Map<Long, LockedProduct> locked = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(LOCK_SQL.formatted(placeholders), rs -> {
+                long id = rs.getLong("id");
+                Long categoryId = rs.getObject("category_id", Long.class);
+                locked.put(id, new LockedProduct(id, rs.getString("name"), rs.getLong("price_minor"),
+                        rs.getString("currency"), rs.getInt("stock"), categoryId));
+            }, chunk.toArray());
+        }
+        return locked;
+    }
+
+    // Writes absolute stock levels in one batch; only safe for rows locked by lockAll in the same transaction
+    public void setAll(SortedMap<Long, Integer> stock) {
+        List<Object[]> batch = new ArrayList<>(stock.size());
+        stock.forEach((productId, level) -> batch.add(new Object[]{level, productId}));
+        jdbcTemplate.batchUpdate(SET_STOCK_SQL, batch);
+    }
+
+    // Current stock of each product; ids with no row are simply absent
+    public Map<Long, Integer> findStockLevels(List<Long> productIds) {
+        Map<Long, Integer> levels = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + MAX_IN_LIST, productIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(STOCK_SQL.formatted(placeholders), rs -> {
+                levels.put(rs.getLong("id"), rs.getInt("stock"));
+            }, chunk.toArray());
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// BM25 over name + description. Documents get dense ordinals in insertion order, so every posting list is
+// sorted by ordinal and can be merged or probed with galloping search. Updates append a new ordinal and
+// tombstone the old one. Not thread-safe: ProductSearchIndex guards it with a read/write lock.
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 3; // a term in the name counts like three in the description
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float FUZZY_WEIGHT = 0.6f;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final LongIntMap ordinals = new LongIntMap();
+    private final BitSet live = new BitSet();
+
+    private long[] ids = new long[1024];
+    private long[] prices = new long[1024]; // minor units
+    private long[] categoryIds = new long[1024]; // 0 = no category
+    private int[] lengths = new int[1024];
+    private Postings[][] termsOf = new Postings[1024][]; // a live document's terms, so remove can update their counts
+    private int size; // ordinals handed out, live or not
+    private int liveCount;
+    private long totalLength; // of live documents
+
+    public void add(SearchDocument document) {
+        remove(document.id());
+        int ordinal = size++;
+        if (ordinal == ids.length) {
+            grow();
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : Tokenizer.tokenize(document.name())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+            length += NAME_WEIGHT;
+        }
+        for (String term : Tokenizer.tokenize(document.description())) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        Postings[] documentTerms = new Postings[frequencies.size()];
+        int t = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings postings = terms.computeIfAbsent(entry.getKey(), term -> new Postings());
+            postings.add(ordinal, entry.getValue());
+            documentTerms[t++] = postings;
+        }
+        termsOf[ordinal] = documentTerms;
+
+        ids[ordinal] = document.id();
+        prices[ordinal] = document.price();
+        categoryIds[ordinal] = document.categoryId() != null ? document.categoryId() : 0;
+        lengths[ordinal] = length;
+        live.set(ordinal);
+        liveCount++;
+        totalLength += length;
+        ordinals.put(document.id(), ordinal);
+    }
+
+    public boolean remove(long productId) {
+        int ordinal = ordinals.remove(productId);
+        if (ordinal < 0) {
+            return false;
+        }
+        live.clear(ordinal);
+        liveCount--;
+        totalLength -= lengths[ordinal];
+        for (Postings postings : termsOf[ordinal]) {
+            postings.live--;
+        }
+        termsOf[ordinal] = null;
+        return true;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    // Tombstoned ordinals still held in posting lists; a rebuild drops them
+    public int deadCount() {
+        return size - liveCount;
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    // Every query term must match (through its expansions); scores add up across terms. Only the cheapest
+    // term's postings are scored in full; the others are probed for just those candidates.
+    public SearchResult search(SearchQuery query) {
+        List<String> tokens = Tokenizer.tokenize(query.text());
+        if (tokens.isEmpty() || liveCount == 0) {
+            return new SearchResult(List.of(), 0);
+        }
+        float averageLength = (float) totalLength / liveCount;
+
+        List<List<Expansion>> termExpansions = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean prefix = query.prefix() && i == tokens.size() - 1;
+            List<Expansion> expansions = expand(tokens.get(i), prefix, query.fuzzy());
+            if (expansions.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+            termExpansions.add(expansions);
+        }
+        termExpansions.sort(Comparator.comparingLong(InvertedIndex::cost));
+
+        List<ScoredDocs> first = new ArrayList<>();
+        termExpansions.get(0).forEach(e -> first.add(score(e, averageLength)));
+        ScoredDocs matches = ScoredDocs.union(first);
+        for (int i = 1; i < termExpansions.size() && matches.size > 0; i++) {
+            matches = probe(matches, termExpansions.get(i), averageLength);
+        }
+
+        PriorityQueue<SearchResult.Hit> top = new PriorityQueue<>(query.limit() + 1,
+                Comparator.comparingDouble(SearchResult.Hit::score));
+        int totalHits = 0;
+        for (int i = 0; i < matches.size; i++) {
+            int ordinal = matches.docs[i];
+            if (!live.get(ordinal) || !passesFilters(ordinal, query)) {
+                continue;
+            }
+            totalHits++;
+            if (top.size() < query.limit()) {
+                top.add(new SearchResult.Hit(ids[ordinal], matches.scores[i]));
+            } else if (matches.scores[i] > top.peek().score()) {
+                top.poll();
+                top.add(new SearchResult.Hit(ids[ordinal], matches.scores[i]));
+            }
+        }
+
+        List<SearchResult.Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparingDouble(SearchResult.Hit::score).reversed());
+        return new SearchResult(hits, totalHits);
+    }
+
+    // -----------------------------
+    private boolean passesFilters(int ordinal, SearchQuery query) {
+        return (query.minPrice() == null || prices[ordinal] >= query.minPrice())
+                && (query.maxPrice() == null || prices[ordinal] <= query.maxPrice())
+                && (query.categoryId() == null || categoryIds[ordinal] == query.categoryId());
+    }
+
+    // The exact term plus, if asked for, the most common prefix and one-typo variants of it
+    private List<Expansion> expand(String token, boolean prefix, boolean fuzzy) {
+        Map<String, Float> weights = new HashMap<>();
+        if (terms.containsKey(token)) {
+            weights.put(token, 1f);
+        }
+        if (prefix) {
+            addMostCommon(weights, terms.subMap(token, false, token + Character.MAX_VALUE, false), PREFIX_WEIGHT);
+        }
+        if (fuzzy && token.length() >= MIN_FUZZY_LENGTH) {
+            // same first character only: keeps the scan to one slice of the dictionary
+            String first = token.substring(0, 1);
+            NavigableMap<String, Postings> candidates = new TreeMap<>();
+            for (Map.Entry<String, Postings> entry : terms.subMap(first, true, first + Character.MAX_VALUE, true).entrySet()) {
+                if (Math.abs(entry.getKey().length() - token.length()) <= 1 && withinOneEdit(token, entry.getKey())) {
+                    candidates.put(entry.getKey(), entry.getValue());
+                }
+            }
+            addMostCommon(weights, candidates, FUZZY_WEIGHT);
+        }
+
+        List<Expansion> expansions = new ArrayList<>(weights.size());
+        weights.forEach((term, weight) -> expansions.add(new Expansion(terms.get(term), weight)));
+        return expansions;
+    }
+
+    private static long cost(List<Expansion> expansions) {
+        long cost = 0;
+        for (Expansion expansion : expansions) {
+            cost += expansion.postings().size;
+        }
+        return cost;
+    }
+
+    private void addMostCommon(Map<String, Float> expansions, Map<String, Postings> candidates, float weight) {
+        PriorityQueue<Map.Entry<String, Postings>> common =
+                new PriorityQueue<>(Comparator.comparingInt(e -> e.getValue().size));
+        for (Map.Entry<String, Postings> candidate : candidates.entrySet()) {
+            common.add(candidate);
+            if (common.size() > MAX_EXPANSIONS) {
+                common.poll();
+            }
+        }
+        common.forEach(e -> expansions.putIfAbsent(e.getKey(), weight));
+    }
+
+    private ScoredDocs score(Expansion expansion, float averageLength) {
+        Postings postings = expansion.postings();
+        float idf = idf(postings);
+        ScoredDocs scored = new ScoredDocs(postings.size);
+        for (int i = 0; i < postings.size; i++) {
+            scored.append(postings.docs[i], expansion.weight() * bm25(idf, postings.frequencies[i], postings.docs[i], averageLength));
+        }
+        return scored;
+    }
+
+    // Keeps the candidates this term also matches, galloping through each expansion's postings
+    private ScoredDocs probe(ScoredDocs candidates, List<Expansion> expansions, float averageLength) {
+        int[] positions = new int[expansions.size()];
+        float[] idfs = new float[expansions.size()];
+        for (int e = 0; e < expansions.size(); e++) {
+            idfs[e] = idf(expansions.get(e).postings());
+        }
+
+        ScoredDocs result = new ScoredDocs(Math.min(candidates.size, 1024));
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            boolean matched = false;
+            float best = 0;
+            for (int e = 0; e < expansions.size(); e++) {
+                Postings postings = expansions.get(e).postings();
+                positions[e] = advance(postings, positions[e], doc);
+                if (positions[e] < postings.size && postings.docs[positions[e]] == doc) {
+                    float score = expansions.get(e).weight()
+                            * bm25(idfs[e], postings.frequencies[positions[e]], doc, averageLength);
+                    best = matched ? Math.max(best, score) : score;
+                    matched = true;
+                }
+            }
+            if (matched) {
+                result.append(doc, candidates.scores[i] + best);
+            }
+        }
+        return result;
+    }
+
+    // First position at or after `from` whose doc is >= target (exponential then binary search)
+    private static int advance(Postings postings, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < postings.size && postings.docs[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, postings.size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (postings.docs[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Live documents only: tombstoned ordinals stay in the postings until a rebuild, and counting them would push
+    // idf, and with it every score, below zero once documents are re-indexed
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (liveCount - postings.live + 0.5) / (postings.live + 0.5));
+    }
+
+    private float bm25(float idf, int tf, int ordinal, float averageLength) {
+        float norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+        return idf * tf * (K1 + 1) / (tf + norm);
+    }
+
+    // Levenshtein distance <= 1, or a single adjacent transposition
+    static boolean withinOneEdit(String a, String b) {
+        if (a.equals(b)) {
+            return true;
+        }
+        if (a.length() > b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int i = 0;
+        while (i < a.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() == b.length()) {
+            if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+                return true; // substitution
+            }
+            return i + 1 < a.length() && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+        }
+        return b.length() == a.length() + 1 && a.regionMatches(i, b, i + 1, a.length() - i); // insertion
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        termsOf = Arrays.copyOf(termsOf, capacity);
+    }
+
+    private record Expansion(Postings postings, float weight) {
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live; // postings of live documents
+
+        private void add(int ordinal, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+
+    // Ordinals ascending with their scores
+    private static final class ScoredDocs {
+        private int[] docs;
+        private float[] scores;
+        private int size;
+
+        private ScoredDocs(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            scores = new float[Math.max(capacity, 1)];
+        }
+
+        private void append(int doc, float score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        // Docs in any list; a doc matched by several expansions keeps its best score
+        private static ScoredDocs union(List<ScoredDocs> lists) {
+            if (lists.isEmpty()) {
+                return new ScoredDocs(0);
+            }
+            if (lists.size() == 1) {
+                return lists.get(0);
+            }
+            int total = 0;
+            for (ScoredDocs list : lists) {
+                total += list.size;
+            }
+            int[] positions = new int[lists.size()];
+            PriorityQueue<Integer> heads = new PriorityQueue<>(
+                    Comparator.comparingInt(l -> lists.get(l).docs[positions[l]]));
+            for (int l = 0; l < lists.size(); l++) {
+                if (lists.get(l).size > 0) {
+                    heads.add(l);
+                }
+            }
+            ScoredDocs result = new ScoredDocs(total);
+            while (!heads.isEmpty()) {
+                int l = heads.poll();
+                ScoredDocs list = lists.get(l);
+                int doc = list.docs[positions[l]];
+                float score = list.scores[positions[l]];
+                if (result.size > 0 && result.docs[result.size - 1] == doc) {
+                    result.scores[result.size - 1] = Math.max(result.scores[result.size - 1], score);
+                } else {
+                    result.append(doc, score);
+                }
+                if (++positions[l] < list.size) {
+                    heads.add(l);
+                }
+            }
+            return result;
+        }
+    }
+
+    // Open-addressing long -> int map (linear probing, backward-shift deletes); keeps millions of
+    // product ids off the boxed heap. Product ids are positive, so 0 marks an empty slot.
+    private static final class LongIntMap {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int count;
+
+        private void put(long key, int value) {
+            if ((count + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == 0) {
+                count++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        // The removed value, or -1
+        private int remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, keys.length);
+            while (keys[slot] != key) {
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int value = values[slot];
+            // shift later entries of the probe run back so lookups never stop at the hole
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != 0) {
+                int home = slot(keys[next], keys.length);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = 0;
+            count--;
+            return value;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (capacity - 1);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Owns the live InvertedIndex: built from PRODUCTS once the app is up, kept current by product writes
+// after they commit, and rebuilt in the background once too many updated/deleted products pile up as tombstones.
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int MIN_DEAD_FOR_REBUILD = 10_000;
+
+    private final ProductRepository productRepository;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedIndex index = new InvertedIndex(); // guarded by lock
+    private List<Consumer<InvertedIndex>> changesDuringRebuild; // non-null while a rebuild runs, guarded by lock
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Runs on the startup thread: requests are already served, but searches only see products written
+    // since startup until it finishes
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    public SearchResult search(SearchQuery query) {
+        lock.readLock().lock();
+        try {
+            return index.search(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Call inside the write transaction; the index only changes if it commits
+    public void indexAfterCommit(Product product) {
+        SearchDocument document = new SearchDocument(product.getId(), product.getName(), product.getDescription(),
+                product.getPriceMinor(), product.getCategory() != null ? product.getCategory().getId() : null);
+        afterCommit(index -> index.add(document));
+    }
+
+    public void removeAfterCommit(long productId) {
+        afterCommit(index -> index.remove(productId));
+    }
+
+    // Streams every product into a fresh index and swaps it in. Writes that commit meanwhile are applied to
+    // both the old and the new index, so none is lost whichever side of the snapshot they fall on.
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+            long started = System.nanoTime();
+            InvertedIndex fresh = new InvertedIndex();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<SearchDocument> documents = productRepository.streamSearchDocuments()) {
+                    documents.forEach(fresh::add);
+                }
+            });
+            withWriteLock(() -> {
+                changesDuringRebuild.forEach(change -> change.accept(fresh));
+                changesDuringRebuild = null;
+                index = fresh;
+            });
+            log.info("Search index built: {} products, {} terms in {} ms", fresh.size(), fresh.termCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            withWriteLock(() -> changesDuringRebuild = null);
+            log.error("Search index rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // -----------------------------
+    private void afterCommit(Consumer<InvertedIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        boolean compact = withWriteLockGet(() -> {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            return index.deadCount() > Math.max(MIN_DEAD_FOR_REBUILD, index.size() / 2);
+        });
+        if (compact && !rebuilding.get()) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        withWriteLockGet(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T withWriteLockGet(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.ecommerce.search;
+
+// The slice of a product the search index keeps; price is in minor units, categoryId may be null
+public record SearchDocument(long id, String name, String description, long price, Long categoryId) {
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.search;
+
+// prefix: the last term also matches longer terms (search-as-you-type); fuzzy: terms of 4+ characters
+// also match terms one edit away. Price bounds are in minor units of the store currency; null bounds and
+// category mean "any".
+public record SearchQuery(String text, Long minPrice, Long maxPrice, Long categoryId,
+                          boolean prefix, boolean fuzzy, int limit) {
+}
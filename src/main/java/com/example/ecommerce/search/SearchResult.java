@@ -0,0 +1,10 @@
+package com.example.ecommerce.search;
+
+import java.util.List;
+
+// Best hits first; totalHits counts every match that passed the filters, not just the returned ones
+public record SearchResult(List<Hit> hits, int totalHits) {
+
+    public record Hit(long productId, float score) {
+    }
+}
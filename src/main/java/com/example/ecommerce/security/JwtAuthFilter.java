@@ -1,6 +1,8 @@
 package com.example.ecommerce.security;
 
+import com.example.ecommerce.metrics.ServiceMetrics;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +22,9 @@ import java.util.List;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenSet revokedTokens;
+    private final ServiceMetrics metrics;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,14 +37,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                String username = jwtUtil.getUsername(token);
-                String role = jwtUtil.getRole(token);
+                // Signature is verified once per distinct token, not once per request
+                JwtPrincipal principal = verifiedTokenCache.get(token, this::parseToken);
+                // In memory (a Bloom filter in front of a hash set): no DB round trip per request
+                if (revokedTokens.isRevoked(principal.tokenId())) {
+                    throw new SecurityException("Revoked JWT token");
+                }
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                principal.username(),
                                 null,
-                                List.of(new SimpleGrantedAuthority(role))
+                                List.of(new SimpleGrantedAuthority(principal.role()))
                         );
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -54,6 +63,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private JwtPrincipal parseToken(String token) {
+        Timer.Sample sample = Timer.start();
+        boolean valid = false;
+        try {
+            JwtPrincipal principal = jwtUtil.parseToken(token);
+            valid = true;
+            return principal;
+        } finally {
+            sample.stop(metrics.jwtParse(valid));
+        }
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
@@ -0,0 +1,7 @@
+package com.example.ecommerce.security;
+
+import java.time.Instant;
+
+// What a verified token says about its caller; safe to share across requests. role is null for refresh tokens.
+public record JwtPrincipal(String username, String role, String tokenId, Instant expiresAt) {
+}
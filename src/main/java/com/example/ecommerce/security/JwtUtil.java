@@ -2,47 +2,142 @@ package com.example.ecommerce.security;
 
 import com.example.ecommerce.entity.Role;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
+// Signs with the active key and verifies with whichever key the token's kid header names, so every node that
+// shares app.jwt.keys accepts the others' tokens, and restarts keep sessions. To rotate: add the new key on every
+// node, then make it app.jwt.active-key, then drop the old one once refresh-ttl has passed.
+// Without configured keys a random per-process key is used (one node, sessions end at restart).
+@Slf4j
 @Component
 public class JwtUtil {
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final long expirationMs = 3600_000; // 1 hour
+    private static final String TOKEN_USE = "token_use"; // access or refresh, so neither can stand in for the other
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
 
-    // Generate token
+    private final Map<String, Key> keys;
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    // Parsers are immutable and thread-safe, so one is built for the lifetime of the key set
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${app.jwt.keys:}") String keys,
+                   @Value("${app.jwt.active-key:}") String activeKeyId,
+                   @Value("${app.jwt.access-ttl:1h}") Duration accessTtl,
+                   @Value("${app.jwt.refresh-ttl:14d}") Duration refreshTtl) {
+        this.keys = parseKeys(keys);
+        if (this.keys.isEmpty()) {
+            this.keys.put("local-" + UUID.randomUUID(), Keys.secretKeyFor(SignatureAlgorithm.HS256));
+            log.warn("No app.jwt.keys configured: tokens are signed with a random key and only valid on this node until it restarts");
+        }
+        this.activeKeyId = activeKeyId.isBlank() ? this.keys.keySet().iterator().next() : activeKeyId;
+        this.activeKey = this.keys.get(this.activeKeyId);
+        if (this.activeKey == null) {
+            throw new IllegalStateException("app.jwt.active-key " + activeKeyId + " is not one of app.jwt.keys");
+        }
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = header.getKeyId() != null ? JwtUtil.this.keys.get(header.getKeyId()) : null;
+                        if (key == null) {
+                            throw new SecurityException("Unknown JWT key id");
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    // Generate access token
     public String generateToken(String username, Role role) {
-        return Jwts.builder()
-                .setSubject(username)
+        return builder(username, ACCESS, accessTtl)
                 .claim("role", role.name())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(key)
                 .compact();
     }
 
-    // Validate token and get username
-    public String getUsername(String token) {
-        return parse(token).getBody().getSubject();
+    // Generate refresh token; carries no role, which is read from the user again at refresh
+    public String generateRefreshToken(String username) {
+        return builder(username, REFRESH, refreshTtl).compact();
     }
 
-    // Get role
-    public String getRole(String token) {
-        return parse(token).getBody().get("role", String.class);
+    public Duration accessTtl() {
+        return accessTtl;
     }
 
-    private Jws<Claims> parse(String token) {
+    // Validate an access token once and read everything the filter needs from it
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = parse(token, ACCESS);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getId(),
+                claims.getExpiration().toInstant());
+    }
+
+    // Validate a refresh token; the principal has no role
+    public JwtPrincipal parseRefreshToken(String token) {
+        Claims claims = parse(token, REFRESH);
+        return new JwtPrincipal(claims.getSubject(), null, claims.getId(), claims.getExpiration().toInstant());
+    }
+
+    // -----------------------------
+    private JwtBuilder builder(String subject, String tokenUse, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .claim(TOKEN_USE, tokenUse)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(activeKey);
+    }
+
+    private Claims parse(String token, String tokenUse) {
+        Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-        } catch (JwtException e) {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
             throw new SecurityException("Invalid JWT token");
         }
+        if (!tokenUse.equals(claims.get(TOKEN_USE, String.class)) || claims.getId() == null) {
+            throw new SecurityException("Invalid JWT token");
+        }
+        return claims;
+    }
+
+    // kid=base64 secret, comma-separated
+    private static Map<String, Key> parseKeys(String keys) {
+        Map<String, Key> parsed = new LinkedHashMap<>();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalStateException("app.jwt.keys entries must look like kid=base64-secret");
+            }
+            parsed.put(entry.substring(0, eq).trim(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.substring(eq + 1).trim())));
+        }
+        return parsed;
     }
 }
@@ -0,0 +1,108 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.metrics.ServiceMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-client quotas by route, applied right after JwtAuthFilter: authenticated requests are counted against
+// their user (JWT subject), the rest against the client IP. The first matching rule applies, so a client has
+// one bucket per rule; requests over quota get 429 with Retry-After. Behind a proxy, set
+// server.forward-headers-strategy so the IP is the client's.
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+    private final ServiceMetrics metrics;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.rules:}") String rules,
+                           ServiceMetrics metrics) {
+        this.enabled = enabled;
+        this.rules = Arrays.stream(rules.split(","))
+                .filter(rule -> !rule.isBlank())
+                .map(RateLimitRule::parse)
+                .toList();
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimitRule rule = match(request);
+        if (rule != null) {
+            long waitNanos = rule.buckets().tryTake(client(request));
+            if (waitNanos > 0) {
+                metrics.rateLimited(rule.name());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", Long.toString(retryAfterSeconds(waitNanos)));
+                response.getWriter().write("Too many requests");
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.idle-eviction-delay-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = 0;
+        for (RateLimitRule rule : rules) {
+            evicted += rule.buckets().evictIdle();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    // Whole seconds, rounded up so a client that waits that long finds a token
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    // -----------------------------
+    private RateLimitRule match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(request.getMethod(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.security;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Locale;
+
+// One entry of app.rate-limit.rules: "METHOD /path/pattern=capacity/refill-per-second", method * for any
+public record RateLimitRule(String name, String method, PathPattern pattern, TokenBuckets buckets) {
+
+    public static RateLimitRule parse(String rule) {
+        String[] routeAndQuota = rule.trim().split("=");
+        String[] route = routeAndQuota[0].trim().split("\\s+");
+        String[] quota = routeAndQuota.length == 2 ? routeAndQuota[1].trim().split("/") : new String[0];
+        if (route.length != 2 || quota.length != 2) {
+            throw new IllegalArgumentException("Rate limit rule '" + rule + "' should look like POST /api/orders=30/2");
+        }
+        return new RateLimitRule(
+                route[0] + " " + route[1],
+                route[0].equals("*") ? null : route[0].toUpperCase(Locale.ROOT),
+                PathPatternParser.defaultInstance.parse(route[1]),
+                new TokenBuckets(Integer.parseInt(quota[0]), Double.parseDouble(quota[1])));
+    }
+
+    public boolean matches(String requestMethod, PathContainer path) {
+        return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ids (jti) of revoked tokens that have not expired yet. Every authenticated request asks isRevoked, and almost
+// every answer is no, so a Bloom filter answers that without touching the map; the map only settles the
+// filter's yes. Writes are rare and serialized.
+@Component
+public class RevokedTokenSet {
+
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    private int capacity;
+
+    public RevokedTokenSet(@Value("${app.jwt.revocation.expected:100000}") int expectedRevocations,
+                           @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = expectedRevocations;
+        this.filter = new BloomFilter(capacity, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    // false when the id was already revoked; ids of expired tokens are not kept
+    public synchronized boolean add(String tokenId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return revoked.containsKey(tokenId);
+        }
+        // Filter first: a reader that sees the id in the map always sees it in the filter too
+        filter.add(tokenId);
+        if (revoked.putIfAbsent(tokenId, expiresAt) != null) {
+            return false;
+        }
+        if (revoked.size() > capacity) {
+            rebuild(); // past its sizing the filter's false-positive rate climbs quickly
+        }
+        return true;
+    }
+
+    // Undoes an add; the filter keeps the id's bits, which only costs a map lookup until the next rebuild
+    public synchronized void remove(String tokenId) {
+        revoked.remove(tokenId);
+    }
+
+    // A Bloom filter cannot forget, so dropping expired ids means building a new one from what is left
+    public synchronized int prune(Instant now) {
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int pruned = before - revoked.size();
+        if (pruned > 0) {
+            rebuild();
+        }
+        return pruned;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // -----------------------------
+    private void rebuild() {
+        capacity = Math.max(expectedRevocations, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ecommerce.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token buckets of one size and refill rate, one per client. A bucket's whole state (tokens left and when they
+// were counted) is packed into one long: the instant at which it will be full again (the GCRA form of a token
+// bucket). Taking a token moves that instant one refill interval later with a single CAS, so concurrent requests
+// from the same client never lock; a bucket whose instant has passed is full and can be dropped.
+public final class TokenBuckets {
+
+    private final long intervalNanos; // time to refill one token
+    private final long burstNanos; // capacity, as refill time
+    private final LongSupplier nanoTime;
+    private final long origin;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBuckets(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBuckets(int capacity, double refillPerSecond, LongSupplier nanoTime) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill rate");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.nanoTime = nanoTime;
+        this.origin = nanoTime.getAsLong();
+    }
+
+    // 0 when a token was taken, otherwise how long until one will be available
+    public long tryTake(String client) {
+        long now = now();
+        AtomicLong bucket = buckets.get(client); // plain get first: no capturing lambda on the hot path
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(now)); // starts full
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Full buckets behave exactly like absent ones. A take racing the removal is lost, which at worst
+    // hands that client one extra token.
+    public int evictIdle() {
+        long now = now();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // -----------------------------
+    private long now() {
+        return nanoTime.getAsLong() - origin; // relative, so the arithmetic above cannot overflow
+    }
+}
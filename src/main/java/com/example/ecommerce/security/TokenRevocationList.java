@@ -0,0 +1,87 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.entity.RevokedToken;
+import com.example.ecommerce.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Revocations shared between nodes through the REVOKED_TOKENS table. Revoking writes a row and applies to this
+// node at once; the others pick it up on their next sync (app.jwt.revocation.sync-delay-ms). Requests only
+// ever consult the in-memory RevokedTokenSet, never the table.
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    // Rows are stamped with the revoking node's clock and may commit late; re-reading this much is harmless
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenSet revokedTokens;
+    private final TransactionTemplate transactionTemplate;
+
+    private Instant syncedUpTo = Instant.EPOCH; // only touched by the scheduler thread (and startup)
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               RevokedTokenSet revokedTokens,
+                               PlatformTransactionManager transactionManager) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokens = revokedTokens;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // false when the token was already revoked, here or on another node, so a refresh token is only exchanged once
+    public boolean revoke(JwtPrincipal token) {
+        if (!revokedTokens.add(token.tokenId(), token.expiresAt())) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    revokedTokenRepository.insert(token.tokenId(), token.expiresAt(), Instant.now()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // another node revoked it first; the next sync would have told us
+        } catch (RuntimeException e) {
+            revokedTokens.remove(token.tokenId()); // not shared with the other nodes, so not revoked at all
+            throw e;
+        }
+    }
+
+    public boolean isRevoked(JwtPrincipal token) {
+        return revokedTokens.isRevoked(token.tokenId());
+    }
+
+    @PostConstruct
+    void load() {
+        sync();
+        log.info("Loaded {} revoked tokens", revokedTokens.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-delay-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                syncedUpTo.minus(SYNC_OVERLAP), now)) {
+            revokedTokens.add(row.getTokenId(), row.getExpiresAt());
+        }
+        syncedUpTo = now;
+        revokedTokens.prune(now);
+    }
+
+    // Rows outlive their token only until the next purge
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-delay-ms:3600000}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status ->
+                revokedTokenRepository.deleteExpiredBefore(Instant.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.entity.Role;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Users as token issuance needs them, so repeated logins skip the users query. Entries live briefly (ttl) and
+// every write to a user must evict it after commit; unknown usernames are never cached.
+@Component
+public class UserLookupCache {
+
+    public record CachedUser(long id, String username, String passwordHash, Role role) {
+    }
+
+    private final Cache<String, CachedUser> users;
+
+    public UserLookupCache(@Value("${app.auth.user-cache.max-size:10000}") long maxSize,
+                           @Value("${app.auth.user-cache.ttl:30s}") Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // loader returns null for an unknown username
+    public CachedUser get(String username, Function<String, CachedUser> loader) {
+        return users.get(username, loader);
+    }
+
+    public void evictAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.invalidate(username);
+            }
+        });
+    }
+}
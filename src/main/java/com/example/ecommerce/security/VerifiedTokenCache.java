@@ -0,0 +1,70 @@
+package com.example.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+// Tokens that already passed signature verification, keyed by SHA-256 of the token so raw
+// tokens are never retained. Each entry expires at the token's own exp claim.
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<TokenHash, JwtPrincipal> verified;
+
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-size:10000}") long maxSize) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    // Verification failures propagate and are never cached
+    public JwtPrincipal get(String token, Function<String, JwtPrincipal> verifier) {
+        return verified.get(hash(token), key -> verifier.apply(token));
+    }
+
+    // -----------------------------
+    private static TokenHash hash(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+    }
+
+    private record TokenHash(long a, long b, long c, long d) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenHash, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(TokenHash key, JwtPrincipal principal, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
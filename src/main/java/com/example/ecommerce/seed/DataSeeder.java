@@ -0,0 +1,235 @@
+package com.example.ecommerce.seed;
+
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.entity.OrderItem;
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.entity.User;
+import com.example.ecommerce.money.Money;
+import com.example.ecommerce.money.StoreCurrency;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.OrderBatchRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.SequenceIds;
+import com.example.ecommerce.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Fills the database with a reproducible data set: the same app.seed.* values give the same rows, so load tests
+// on H2 or a local PostgreSQL always start from the same baseline. Only active with the seed profile. Runs before
+// ApplicationReadyEvent, so the search index and column store load the seeded catalog.
+@Slf4j
+@Component
+@Profile("seed")
+public class DataSeeder implements ApplicationRunner {
+
+    public static final String ADMIN_USERNAME = "seed-admin";
+
+    private static final String[] ADJECTIVES = {"classic", "compact", "deluxe", "eco", "ergonomic", "heavy",
+            "light", "mini", "modern", "portable", "premium", "pro", "rugged", "silent", "smart", "sport",
+            "ultra", "vintage", "wireless", "waterproof"};
+    private static final String[] NOUNS = {"backpack", "blender", "bottle", "camera", "chair", "charger", "desk",
+            "drill", "headphones", "jacket", "kettle", "keyboard", "lamp", "monitor", "mouse", "mug", "notebook",
+            "pan", "phone", "printer", "router", "scooter", "shoes", "speaker", "tablet", "tent", "toaster",
+            "umbrella", "watch", "wallet"};
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final SequenceIds sequenceIds;
+    private final PasswordEncoder passwordEncoder;
+    private final StoreCurrency storeCurrency;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int users;
+    private final int categories;
+    private final int products;
+    private final int orders;
+    private final int maxItemsPerOrder;
+    private final Duration orderHistory;
+    private final String password;
+    private final long randomSeed;
+    private final int batchSize;
+
+    public DataSeeder(UserRepository userRepository,
+                      CategoryRepository categoryRepository,
+                      ProductRepository productRepository,
+                      OrderBatchRepository orderBatchRepository,
+                      SequenceIds sequenceIds,
+                      PasswordEncoder passwordEncoder,
+                      StoreCurrency storeCurrency,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${app.seed.users:1000}") int users,
+                      @Value("${app.seed.categories:50}") int categories,
+                      @Value("${app.seed.products:10000}") int products,
+                      @Value("${app.seed.orders:50000}") int orders,
+                      @Value("${app.seed.max-items-per-order:5}") int maxItemsPerOrder,
+                      @Value("${app.seed.order-history:90d}") Duration orderHistory,
+                      @Value("${app.seed.password:password}") String password,
+                      @Value("${app.seed.random-seed:42}") long randomSeed,
+                      @Value("${app.seed.batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.sequenceIds = sequenceIds;
+        this.passwordEncoder = passwordEncoder;
+        this.storeCurrency = storeCurrency;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.users = users;
+        this.categories = Math.max(1, categories);
+        this.products = products;
+        this.orders = orders;
+        this.maxItemsPerOrder = Math.max(1, maxItemsPerOrder);
+        this.orderHistory = orderHistory;
+        this.password = password;
+        this.randomSeed = randomSeed;
+        this.batchSize = batchSize;
+    }
+
+    public static String customerUsername(int n) {
+        return "customer-" + n;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.findByUsername(ADMIN_USERNAME).isPresent()) {
+            log.info("Seed data already present, skipping");
+            return;
+        }
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+
+        // One hash for every seeded user: hashing thousands of passwords one by one would take minutes
+        String passwordHash = passwordEncoder.encode(password);
+        seedCustomers(passwordHash);
+        List<Category> seededCategories = seedCategories();
+        SeededProducts seededProducts = seedProducts(random, seededCategories);
+        seedOrders(random, seededProducts);
+        // Written last: a run that failed part way is not mistaken for a complete one
+        User admin = new User(null, ADMIN_USERNAME, passwordHash, Role.ROLE_ADMIN);
+        transactionTemplate.executeWithoutResult(status -> userRepository.save(admin));
+
+        log.info("Seeded {} users, {} categories, {} products and {} orders in {} ms",
+                users + 1, categories, products, orders, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // -----------------------------
+    private void seedCustomers(String passwordHash) {
+        inBatches(users, n -> new User(null, customerUsername(n + 1), passwordHash, Role.ROLE_CUSTOMER),
+                userRepository::saveAll);
+    }
+
+    private List<Category> seedCategories() {
+        List<Category> seeded = new ArrayList<>(categories);
+        inBatches(categories, n -> new Category(null, "category-" + (n + 1)),
+                batch -> seeded.addAll(categoryRepository.saveAll(batch)));
+        return seeded;
+    }
+
+    // A few categories hold most of the catalog; prices are log-normal around 20; about 5% is out of stock
+    private SeededProducts seedProducts(SplittableRandom random, List<Category> seededCategories) {
+        SeededProducts seeded = new SeededProducts(products);
+        String currency = storeCurrency.code();
+        long unit = (long) Math.pow(10, Money.fractionDigits(currency)); // minor units per major unit
+        inBatches(products, n -> {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                    + " " + (n + 1);
+            String description = "A " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " for everyday use";
+            long price = Math.max(Math.max(1, unit / 2), Math.round(Math.exp(3 + random.nextGaussian()) * unit));
+            int stock = random.nextInt(20) == 0 ? 0 : 1_000 + random.nextInt(100_000);
+            Category category = seededCategories.get(skewed(random, seededCategories.size()));
+            return new Product(null, name, description, price, currency, stock, category);
+        }, batch -> productRepository.saveAll(batch).forEach(seeded::add));
+        return seeded;
+    }
+
+    // Historical orders only: stock is not decremented and no outbox events are written
+    private void seedOrders(SplittableRandom random, SeededProducts seededProducts) {
+        if (seededProducts.size == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long historySeconds = Math.max(1, orderHistory.toSeconds());
+        inBatches(orders, n -> {
+            int customer = 1 + skewed(random, Math.max(1, users));
+            Map<Integer, Integer> lines = new LinkedHashMap<>();
+            int lineCount = 1 + random.nextInt(maxItemsPerOrder);
+            for (int i = 0; i < lineCount; i++) {
+                lines.merge(skewed(random, seededProducts.size), 1 + random.nextInt(3), Integer::sum);
+            }
+            List<OrderItem> items = new ArrayList<>(lines.size());
+            long total = 0;
+            for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+                int p = line.getKey();
+                items.add(new OrderItem(sequenceIds.nextOrderItemId(), seededProducts.ids[p], seededProducts.names[p],
+                        seededProducts.prices[p], line.getValue()));
+                total += seededProducts.prices[p] * line.getValue();
+            }
+            OrderStatus status = random.nextInt(20) == 0 ? OrderStatus.CANCELLED : OrderStatus.CONFIRMED;
+            LocalDateTime createdAt = now.minusSeconds(random.nextLong(historySeconds));
+            return new Order(sequenceIds.nextOrderId(), customerUsername(customer), status, createdAt, items, total,
+                    storeCurrency.code(), null);
+        }, orderBatchRepository::insertAll);
+    }
+
+    // Builds count rows and writes them batchSize at a time, one transaction per batch
+    private <T> void inBatches(int count, IntFunction<T> row, Consumer<List<T>> writer) {
+        List<T> batch = new ArrayList<>(Math.min(count, batchSize));
+        for (int n = 0; n < count; n++) {
+            batch.add(row.apply(n));
+            if (batch.size() == batchSize || n == count - 1) {
+                List<T> rows = batch;
+                transactionTemplate.executeWithoutResult(status -> writer.accept(rows));
+                batch = new ArrayList<>(Math.min(count - n - 1, batchSize));
+            }
+        }
+    }
+
+    // Roughly Zipf-like: low indexes are picked far more often, like best sellers and loyal customers
+    private static int skewed(SplittableRandom random, int bound) {
+        double u = random.nextDouble();
+        return Math.min(bound - 1, (int) (bound * u * u * u));
+    }
+
+    private static final class SeededProducts {
+        final long[] ids;
+        final String[] names;
+        final long[] prices; // minor units
+        int size;
+
+        SeededProducts(int capacity) {
+            ids = new long[capacity];
+            names = new String[capacity];
+            prices = new long[capacity];
+        }
+
+        void add(Product product) {
+            ids[size] = product.getId();
+            names[size] = product.getName();
+            prices[size] = product.getPriceMinor();
+            size++;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.TokenResponse;
+import com.example.ecommerce.entity.User;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.JwtPrincipal;
+import com.example.ecommerce.security.JwtUtil;
+import com.example.ecommerce.security.TokenRevocationList;
+import com.example.ecommerce.security.UserLookupCache;
+import com.example.ecommerce.security.UserLookupCache.CachedUser;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Token issuance, refresh and logout. Password hashing is deliberately slow, so it runs on its own bounded pool: a login storm
+// queues there (and is shed with 503 once the queue is full) instead of occupying request threads and CPU
+// that catalog and order traffic need.
+@Slf4j
+@Service
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final ServiceMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashing;
+
+    public AuthService(UserRepository userRepository,
+                       UserLookupCache userLookupCache,
+                       PasswordEncoder passwordEncoder,
+                       JwtUtil jwtUtil,
+                       TokenRevocationList revocationList,
+                       ServiceMetrics metrics,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.auth.hash-threads:0}") int hashThreads,
+                       @Value("${app.auth.hash-queue:200}") int hashQueue) {
+        this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashing = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueue),
+                task -> new Thread(task, "auth-hash-" + threadNumber.getAndIncrement()));
+    }
+
+    // The user lookup (normally a cache hit) runs on the caller's thread; the password check on the hashing pool.
+    // Completes empty when the password is wrong.
+    public CompletableFuture<Optional<TokenResponse>> issueToken(String username, String password) {
+        CachedUser user = userLookupCache.get(username, this::loadUser);
+        if (user == null) {
+            metrics.notFound("user");
+            throw new RuntimeException("User not found");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(user, password), hashing);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress, retry later");
+        }
+    }
+
+    // Exchanges a refresh token for a new pair; the presented one is revoked so it works only once.
+    // Empty when the token is invalid, expired, already used, or its user no longer exists.
+    public Optional<TokenResponse> refresh(String refreshToken) {
+        JwtPrincipal refresh;
+        try {
+            refresh = jwtUtil.parseRefreshToken(refreshToken);
+        } catch (SecurityException e) {
+            return Optional.empty();
+        }
+        if (revocationList.isRevoked(refresh) || !revocationList.revoke(refresh)) {
+            return Optional.empty();
+        }
+        CachedUser user = userLookupCache.get(refresh.username(), this::loadUser);
+        return Optional.ofNullable(user).map(this::issue);
+    }
+
+    // Revokes whichever of the two tokens is given and valid; anything else is ignored
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            revokeQuietly(() -> jwtUtil.parseToken(accessToken));
+        }
+        if (refreshToken != null) {
+            revokeQuietly(() -> jwtUtil.parseRefreshToken(refreshToken));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        hashing.shutdown();
+    }
+
+    // -----------------------------
+    private Optional<TokenResponse> verify(CachedUser user, String password) {
+        Timer.Sample sample = Timer.start();
+        if (!passwordEncoder.matches(password, user.passwordHash())) {
+            sample.stop(metrics.login(false));
+            return Optional.empty();
+        }
+        if (passwordEncoder.upgradeEncoding(user.passwordHash())) {
+            rehash(user, password);
+        }
+        TokenResponse tokens = issue(user);
+        sample.stop(metrics.login(true));
+        return Optional.of(tokens);
+    }
+
+    private TokenResponse issue(CachedUser user) {
+        return new TokenResponse(
+                jwtUtil.generateToken(user.username(), user.role()),
+                jwtUtil.generateRefreshToken(user.username()),
+                "Bearer",
+                jwtUtil.accessTtl().toSeconds());
+    }
+
+    private void revokeQuietly(Supplier<JwtPrincipal> parser) {
+        try {
+            revocationList.revoke(parser.get());
+        } catch (SecurityException e) {
+            // invalid or expired already: nothing to revoke
+        }
+    }
+
+    // Plaintext rows and hashes below the configured strength are replaced with the password just verified.
+    // A failure here only costs the upgrade, never the login.
+    private void rehash(CachedUser user, String password) {
+        String newHash = passwordEncoder.encode(password);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.replacePasswordHash(user.id(), user.passwordHash(), newHash);
+                userLookupCache.evictAfterCommit(user.username());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not rehash password of user {}", user.id(), e);
+        }
+    }
+
+    private CachedUser loadUser(String username) {
+        return userRepository.findByUsername(username)
+                .map(AuthService::toCachedUser)
+                .orElse(null);
+    }
+
+    private static CachedUser toCachedUser(User user) {
+        return new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.browse.ProductColumnStore;
+import com.example.ecommerce.cache.CatalogCache;
 import com.example.ecommerce.dto.CategoryRequest;
 import com.example.ecommerce.dto.CategoryResponse;
 import com.example.ecommerce.entity.Category;
 import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.metrics.ServiceMetrics;
 import com.example.ecommerce.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -18,6 +21,9 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CatalogCache catalogCache;
+    private final ProductColumnStore productColumnStore;
+    private final ServiceMetrics metrics;
 
     // Admin Only
     @Transactional
@@ -32,6 +38,7 @@ public class CategoryService {
         category.setName(request.getName());
 
         category = categoryRepository.save(category);
+        catalogCache.evictCategories();
 
         return new CategoryResponse(category.getId(), category.getName());
     }
@@ -42,10 +49,12 @@ public class CategoryService {
         validateAdmin(auth);
 
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+                .orElseThrow(this::categoryNotFound);
 
         category.setName(request.getName());
         category = categoryRepository.save(category);
+        catalogCache.evictCategoryRename(id);
+        productColumnStore.renameCategoryAfterCommit(id, category.getName());
 
         return new CategoryResponse(category.getId(), category.getName());
     }
@@ -56,18 +65,24 @@ public class CategoryService {
         validateAdmin(auth);
 
         if (!categoryRepository.existsById(id)) {
-            throw new IllegalArgumentException("Category not found");
+            throw categoryNotFound();
         }
 
         categoryRepository.deleteById(id);
+        catalogCache.evictCategory(id);
     }
 
     // Public
     public List<CategoryResponse> listCategories() {
-        return categoryRepository.findAll()
+        return catalogCache.getCategories(() -> categoryRepository.findAll()
                 .stream()
                 .map(c -> new CategoryResponse(c.getId(), c.getName()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    private IllegalArgumentException categoryNotFound() {
+        metrics.notFound("category");
+        return new IllegalArgumentException("Category not found");
     }
 
     // Service-level Role Check
@@ -0,0 +1,62 @@
+package com.example.ecommerce.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursors: clients only ever echo back what we handed out
+final class Cursors {
+
+    private static final String PREFIX = "id:";
+    private static final String PRICE_PREFIX = "price:";
+
+    private Cursors() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A missing cursor means "start from the beginning"
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Price-sorted pages resume after the last (price in minor units, id) seen
+    static String encode(long lastPrice, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PRICE_PREFIX + lastPrice + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null when the cursor is missing
+    static PriceKey decodePriceKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (!raw.startsWith(PRICE_PREFIX) || separator < PRICE_PREFIX.length()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PriceKey(Long.parseLong(raw.substring(PRICE_PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    record PriceKey(long price, long id) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.OrderRequest;
+import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.entity.IdempotencyKey;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.repository.IdempotencyKeyRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Idempotency-Key support for order placement. The first request with a key places the order; a duplicate
+// arriving meanwhile waits for that result, and later ones get it replayed from memory. Keys are scoped to the
+// user and expire after ttl. With store=database, synchronous placements also record the key in
+// IDEMPOTENCY_KEYS, so duplicates are caught across nodes and after this node has forgotten the key.
+@Slf4j
+@Component
+public class OrderIdempotency {
+
+    public record PlacedOrder(OrderResponse order, boolean queued, boolean replayed) {
+
+        PlacedOrder asReplay() {
+            return new PlacedOrder(order, queued, true);
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<PlacedOrder> result) {
+    }
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final OrderRepository orderRepository;
+    private final ServiceMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, InFlight> keys;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final boolean durable;
+
+    public OrderIdempotency(IdempotencyKeyRepository idempotencyKeyRepository,
+                            OrderRepository orderRepository,
+                            ServiceMetrics metrics,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.orders.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.orders.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${app.orders.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                            @Value("${app.orders.idempotency.store:memory}") String store) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.orderRepository = orderRepository;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.durable = store.equals("database");
+    }
+
+    // Runs placement at most once per (username, key) while the key is remembered
+    public PlacedOrder placeOnce(String username, String key, OrderRequest request, Supplier<PlacedOrder> placement) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope(username, key);
+        String fingerprint = fingerprint(request);
+        CompletableFuture<PlacedOrder> result = new CompletableFuture<>();
+        InFlight mine = new InFlight(fingerprint, result);
+        InFlight existing = keys.asMap().putIfAbsent(scopedKey, mine);
+        if (existing != null) {
+            checkSameOrder(existing.fingerprint(), fingerprint);
+            return replay(await(existing.result()));
+        }
+
+        try {
+            PlacedOrder placed = durable ? findRecorded(scopedKey, fingerprint) : null;
+            if (placed != null) {
+                placed = replay(placed);
+            } else {
+                placed = placeOrFindRecorded(scopedKey, fingerprint, placement);
+            }
+            result.complete(placed);
+            return placed;
+        } catch (RuntimeException e) {
+            // Nothing was ordered: forget the key so a retry runs again; duplicates already waiting get the same error
+            keys.asMap().remove(scopedKey, mine);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Called inside the order's transaction; a concurrent duplicate elsewhere makes one of the two inserts fail
+    void recordInTransaction(String username, String key, OrderRequest request, long orderId) {
+        if (durable) {
+            idempotencyKeyRepository.insert(scope(username, key), fingerprint(request), orderId, LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-delay-ms:3600000}")
+    public void purge() {
+        if (!durable) {
+            return;
+        }
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    // -----------------------------
+    private PlacedOrder placeOrFindRecorded(String scopedKey, String fingerprint, Supplier<PlacedOrder> placement) {
+        try {
+            return placement.get();
+        } catch (DataIntegrityViolationException e) {
+            // Another node placed this key first and our transaction rolled back
+            PlacedOrder recorded = durable ? findRecorded(scopedKey, fingerprint) : null;
+            if (recorded == null) {
+                throw e;
+            }
+            return replay(recorded);
+        }
+    }
+
+    private PlacedOrder findRecorded(String scopedKey, String fingerprint) {
+        return idempotencyKeyRepository.findById(scopedKey)
+                .map(recorded -> {
+                    checkSameOrder(recorded.getFingerprint(), fingerprint);
+                    return orderRepository.findWithItemsByIdIn(List.of(recorded.getOrderId())).stream()
+                            .findFirst()
+                            .map(order -> new PlacedOrder(OrderService.mapToResponse(order), false, false))
+                            .orElse(null);
+                })
+                .orElse(null);
+    }
+
+    private PlacedOrder await(CompletableFuture<PlacedOrder> original) {
+        try {
+            return original.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "An order with this Idempotency-Key is still being placed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "An order with this Idempotency-Key is still being placed");
+        }
+    }
+
+    private PlacedOrder replay(PlacedOrder placed) {
+        metrics.idempotentReplay();
+        return placed.asReplay();
+    }
+
+    private static void checkSameOrder(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different order");
+        }
+    }
+
+    // The username is hashed because it may itself contain ':'; Base64 never does, so no two pairs share a scope
+    static String scope(String username, String key) {
+        return sha256(username) + ":" + key;
+    }
+
+    // Lines merged and sorted, so a retry that lists the same items differently still matches
+    static String fingerprint(OrderRequest request) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        if (request.getItems() != null) {
+            for (OrderRequest.OrderItemRequest item : request.getItems()) {
+                quantities.merge(item.getProductId() != null ? item.getProductId() : -1L, item.getQuantity(), Integer::sum);
+            }
+        }
+        return sha256(quantities.toString());
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.browse.ProductColumnStore;
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.entity.OrderEvent;
+import com.example.ecommerce.entity.OrderItem;
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.money.Money;
+import com.example.ecommerce.money.StoreCurrency;
+import com.example.ecommerce.repository.OrderBatchRepository;
+import com.example.ecommerce.repository.SequenceIds;
+import com.example.ecommerce.repository.StockRepository;
+import com.example.ecommerce.repository.StockRepository.LockedProduct;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Accept-then-process mode for placeOrder (app.orders.async.enabled). Requests only validate, take an id
+// and enqueue; workers drain the queue in micro-batches, each one transaction that locks the batch's
+// products once, allocates stock to orders first-come-first-served and writes everything as JDBC batches.
+@Slf4j
+@Component
+public class OrderPipeline {
+
+    // An accepted order that is not in the database yet
+    public record Submission(long id, String username, LocalDateTime createdAt, SortedMap<Long, Integer> quantities) {
+    }
+
+    // What a status poll sees until the order row is committed
+    public record Pending(String username, OrderStatus status, String reason) {
+    }
+
+    private final StockRepository stockRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final SequenceIds sequenceIds;
+    private final CatalogCache catalogCache;
+    private final ProductColumnStore productColumnStore;
+    private final StoreCurrency storeCurrency;
+    private final ServiceMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final BlockingQueue<Submission> queue;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Cache<Long, Pending> failed; // never reach the database, so kept only for a while
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderPipeline(StockRepository stockRepository,
+                         OrderBatchRepository orderBatchRepository,
+                         SequenceIds sequenceIds,
+                         CatalogCache catalogCache,
+                         ProductColumnStore productColumnStore,
+                         StoreCurrency storeCurrency,
+                         ServiceMetrics metrics,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.orders.async.enabled:false}") boolean enabled,
+                         @Value("${app.orders.async.queue-capacity:10000}") int queueCapacity,
+                         @Value("${app.orders.async.workers:2}") int workerCount,
+                         @Value("${app.orders.async.batch-size:100}") int batchSize,
+                         @Value("${app.orders.async.failed-ttl:1h}") Duration failedTtl) {
+        this.stockRepository = stockRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.sequenceIds = sequenceIds;
+        this.catalogCache = catalogCache;
+        this.productColumnStore = productColumnStore;
+        this.storeCurrency = storeCurrency;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.failed = Caffeine.newBuilder()
+                .maximumSize(queueCapacity)
+                .expireAfterWrite(failedTtl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns null when the queue is full (the caller should shed load), otherwise the queued submission
+    public Submission submit(String username, SortedMap<Long, Integer> quantities) {
+        if (!running) {
+            throw new IllegalStateException("Order pipeline is not running");
+        }
+        Submission submission = new Submission(sequenceIds.nextOrderId(), username, LocalDateTime.now(), quantities);
+        pending.put(submission.id(), new Pending(username, OrderStatus.CREATED, null));
+        if (!queue.offer(submission)) {
+            pending.remove(submission.id());
+            return null;
+        }
+        return submission;
+    }
+
+    public Pending pending(long orderId) {
+        Pending queued = pending.get(orderId);
+        return queued != null ? queued : failed.getIfPresent(orderId);
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "order-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    // Stops taking orders and lets the workers finish whatever is already queued
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Order pipeline stopped with {} orders still queued", queue.size());
+        }
+    }
+
+    // -----------------------------
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // A failed batch is retried one order at a time so a single bad order can't sink its neighbours
+    private void process(List<Submission> batch) {
+        try {
+            persist(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.warn("Order batch of {} failed, retrying one by one", batch.size(), e);
+            }
+            for (Submission submission : batch) {
+                try {
+                    persist(List.of(submission));
+                } catch (RuntimeException ex) {
+                    log.error("Order {} could not be processed", submission.id(), ex);
+                    // never reaches the database, so the failure stays visible to status polls from here
+                    failed.put(submission.id(), new Pending(submission.username(), OrderStatus.CANCELLED,
+                            "Order could not be processed"));
+                    pending.remove(submission.id());
+                }
+            }
+        }
+    }
+
+    private void persist(List<Submission> batch) {
+        metrics.orderBatch().record(() -> transactionTemplate.executeWithoutResult(status -> {
+            SortedSet<Long> productIds = new TreeSet<>();
+            batch.forEach(submission -> productIds.addAll(submission.quantities().keySet()));
+            Map<Long, LockedProduct> products = stockRepository.lockAll(productIds);
+
+            SortedMap<Long, Integer> remaining = new TreeMap<>();
+            products.forEach((id, product) -> remaining.put(id, product.stock()));
+
+            List<Order> orders = new ArrayList<>(batch.size());
+            for (Submission submission : batch) {
+                orders.add(allocate(submission, products, remaining));
+            }
+
+            SortedMap<Long, Integer> changed = new TreeMap<>();
+            remaining.forEach((id, stock) -> {
+                if (stock != products.get(id).stock()) {
+                    changed.put(id, stock);
+                }
+            });
+            if (!changed.isEmpty()) {
+                stockRepository.setAll(changed);
+                catalogCache.evictProducts(changed.keySet(), changed.keySet().stream()
+                        .map(id -> products.get(id).categoryId())
+                        .toList());
+                productColumnStore.refreshStockAfterCommit(changed.keySet());
+            }
+            orderBatchRepository.insertAll(orders);
+
+            List<OrderEvent> events = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                OrderEvent event = OrderEvent.of(order);
+                event.setId(sequenceIds.nextOrderEventId());
+                events.add(event);
+            }
+            orderBatchRepository.insertEvents(events);
+        }));
+        batch.forEach(submission -> pending.remove(submission.id()));
+    }
+
+    // Confirms the order and takes its stock from `remaining` only if every line can be met
+    private Order allocate(Submission submission, Map<Long, LockedProduct> products, SortedMap<Long, Integer> remaining) {
+        String reason = null;
+        String currency = null;
+        for (Map.Entry<Long, Integer> line : submission.quantities().entrySet()) {
+            LockedProduct product = products.get(line.getKey());
+            if (product == null) {
+                reason = "Product not found: " + line.getKey();
+                metrics.notFound("product");
+                break;
+            }
+            if (currency == null) {
+                currency = product.currency();
+            } else if (!currency.equals(product.currency())) {
+                reason = "Products in one order must share a currency";
+                break;
+            }
+            if (remaining.get(line.getKey()) < line.getValue()) {
+                reason = "Insufficient stock for product: " + product.name();
+                metrics.insufficientStock(true);
+                break;
+            }
+        }
+
+        List<OrderItem> items = new ArrayList<>(submission.quantities().size());
+        long total = 0;
+        for (Map.Entry<Long, Integer> line : submission.quantities().entrySet()) {
+            LockedProduct product = products.get(line.getKey());
+            OrderItem item = new OrderItem();
+            item.setId(sequenceIds.nextOrderItemId());
+            item.setProductId(line.getKey());
+            item.setProductName(product != null ? product.name() : null);
+            item.setPriceMinor(product != null ? product.priceMinor() : 0);
+            item.setQuantity(line.getValue());
+            items.add(item);
+            total = Math.addExact(total, Money.times(item.getPriceMinor(), item.getQuantity()));
+            if (reason == null) {
+                remaining.merge(line.getKey(), -line.getValue(), Integer::sum);
+            }
+        }
+
+        Order order = new Order();
+        order.setId(submission.id());
+        order.setUsername(submission.username());
+        order.setStatus(reason == null ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED);
+        order.setCreatedAt(submission.createdAt());
+        order.setItems(items);
+        order.setTotalMinor(total);
+        order.setCurrency(currency != null ? currency : storeCurrency.code()); // no product found: nothing was priced
+        order.setCancelReason(reason);
+        return order;
+    }
+}
@@ -1,16 +1,39 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.browse.ProductColumnStore;
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.OrderQuery;
 import com.example.ecommerce.dto.OrderRequest;
 import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.dto.OrderStatusResponse;
+import com.example.ecommerce.dto.OrderSummaryResponse;
+import com.example.ecommerce.dto.PageResponse;
 import com.example.ecommerce.entity.*;
+import com.example.ecommerce.events.OrderEventStream;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.money.Money;
+import com.example.ecommerce.repository.OrderEventRepository;
+import com.example.ecommerce.repository.OrderFilter;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.StockRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,77 +41,300 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderEventRepository orderEventRepository;
     private final ProductRepository productRepository;
+    private final StockRepository stockRepository;
+    private final CatalogCache catalogCache;
+    private final ProductColumnStore productColumnStore;
+    private final OrderPipeline orderPipeline;
+    private final OrderEventStream orderEventStream;
+    private final OrderIdempotency orderIdempotency;
+    private final ServiceMetrics metrics;
+
+    @Value("${app.orders.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.orders.max-page-size:100}")
+    private int maxPageSize;
 
     // Customer: Place an order
+    // All lines are reserved all-or-nothing: any failure rolls back every decrement already applied
+    @Transactional
     public OrderResponse placeOrder(OrderRequest request, Authentication auth) {
+        return placeOrder(request, auth, null);
+    }
+
+    // idempotencyKey, when given, is recorded in this transaction (see OrderIdempotency)
+    @Transactional
+    public OrderResponse placeOrder(OrderRequest request, Authentication auth, String idempotencyKey) {
+        Timer.Sample phase = Timer.start();
         checkCustomer(auth);
         String username = auth.getName();
+        SortedMap<Long, Integer> quantities = mergeLines(request);
 
-        List<OrderItem> items = request.getItems().stream().map(itemRequest -> {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
-
-            if (product.getStock() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+        // Resolve the whole cart in one query
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                metrics.notFound("product");
+                throw new RuntimeException("Product not found: " + productId);
             }
+        }
+        String currency = products.values().iterator().next().getCurrency();
+        for (Product product : products.values()) {
+            if (!currency.equals(product.getCurrency())) {
+                throw new IllegalArgumentException("Products in one order must share a currency");
+            }
+        }
+        phase.stop(metrics.orderValidation());
 
-            // Reduce stock
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+        // Reserve every line in one JDBC batch; any rejected line rolls back the rest
+        phase = Timer.start();
+        List<Long> rejected = stockRepository.decrementAll(quantities);
+        if (!rejected.isEmpty()) {
+            metrics.insufficientStock(false);
+            throw new RuntimeException("Insufficient stock for product: " + products.get(rejected.get(0)).getName());
+        }
+        productColumnStore.refreshStockAfterCommit(quantities.keySet());
+        catalogCache.evictProducts(quantities.keySet(), products.values().stream()
+                .map(product -> product.getCategory() != null ? product.getCategory().getId() : null)
+                .toList());
+        phase.stop(metrics.orderReservation());
 
+        Timer.Sample persist = Timer.start();
+
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
             OrderItem orderItem = new OrderItem();
             orderItem.setProductId(product.getId());
             orderItem.setProductName(product.getName());
-            orderItem.setPrice(product.getPrice());
-            orderItem.setQuantity(itemRequest.getQuantity());
-            return orderItem;
-        }).collect(Collectors.toList());
-
-        double total = items.stream()
-                .mapToDouble(i -> i.getPrice() * i.getQuantity())
-                .sum();
+            orderItem.setPriceMinor(product.getPriceMinor());
+            orderItem.setQuantity(quantity);
+            items.add(orderItem);
+        });
 
         Order order = new Order();
         order.setUsername(username);
         order.setStatus(OrderStatus.CREATED);
         order.setCreatedAt(LocalDateTime.now());
         order.setItems(items);
-        order.setTotal(total);
+        order.setTotalMinor(total(items));
+        order.setCurrency(currency);
 
         Order savedOrder = orderRepository.save(order);
+        orderEventRepository.save(OrderEvent.of(savedOrder));
+        if (idempotencyKey != null) {
+            orderIdempotency.recordInTransaction(username, idempotencyKey, request, savedOrder.getId());
+        }
+        metrics.recordPersistAfterCommit(persist);
         return mapToResponse(savedOrder);
     }
 
+    public boolean isAsyncOrders() {
+        return orderPipeline.isEnabled();
+    }
+
+    // Customer: Place an order in async mode. Only the request itself is checked here; stock is reserved
+    // later by the pipeline, which moves the order to CONFIRMED or CANCELLED. Poll getOrderStatus for the outcome.
+    public OrderResponse submitOrder(OrderRequest request, Authentication auth) {
+        checkCustomer(auth);
+        OrderPipeline.Submission submission = orderPipeline.submit(auth.getName(), mergeLines(request));
+        if (submission == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending orders, retry later");
+        }
+
+        // Names and prices are only known once the pipeline has read the products
+        OrderResponse response = new OrderResponse();
+        response.setId(submission.id());
+        response.setUsername(submission.username());
+        response.setStatus(OrderStatus.CREATED);
+        response.setCreatedAt(submission.createdAt());
+        response.setItems(submission.quantities().entrySet().stream()
+                .map(line -> {
+                    OrderResponse.OrderItemResponse item = new OrderResponse.OrderItemResponse();
+                    item.setProductId(line.getKey());
+                    item.setQuantity(line.getValue());
+                    return item;
+                }).collect(Collectors.toList()));
+        return response;
+    }
+
+    // Admin, or the customer who placed it: where an order is, including ones still queued
+    @Transactional(readOnly = true)
+    public OrderStatusResponse getOrderStatus(Long orderId, Authentication auth) {
+        OrderPipeline.Pending pending = orderPipeline.pending(orderId);
+        if (pending != null) {
+            checkCanView(pending.username(), auth);
+            return new OrderStatusResponse(orderId, pending.status(), pending.reason());
+        }
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(this::orderNotFound);
+        checkCanView(order.getUsername(), auth);
+        return new OrderStatusResponse(order.getId(), order.getStatus(), order.getCancelReason());
+    }
+
     // Customer: View own orders
-    public List<OrderResponse> viewOwnOrders(Authentication auth) {
+    @Transactional(readOnly = true)
+    public PageResponse<OrderResponse> viewOwnOrders(OrderQuery query, Authentication auth) {
         checkCustomer(auth);
-        String username = auth.getName();
-        return orderRepository.findByUsername(username)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return findOrders(auth.getName(), query);
     }
 
     // Admin: View all orders
-    public List<OrderResponse> viewAllOrders(Authentication auth) {
+    @Transactional(readOnly = true)
+    public PageResponse<OrderResponse> viewAllOrders(OrderQuery query, Authentication auth) {
         checkAdmin(auth);
-        return orderRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return findOrders(null, query);
+    }
+
+    // Customer: own order headers only
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryResponse> viewOwnOrderSummaries(OrderQuery query, Authentication auth) {
+        checkCustomer(auth);
+        return findSummaries(auth.getName(), query);
+    }
+
+    // Admin: all order headers only
+    @Transactional(readOnly = true)
+    public PageResponse<OrderSummaryResponse> viewAllOrderSummaries(OrderQuery query, Authentication auth) {
+        checkAdmin(auth);
+        return findSummaries(null, query);
+    }
+
+    // Admin, or the customer who placed it: one order with its items
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long orderId, Authentication auth) {
+        Order order = orderRepository.findWithItemsByIdIn(List.of(orderId)).stream()
+                .findFirst()
+                .orElseThrow(this::orderNotFound);
+        checkCanView(order.getUsername(), auth);
+        return mapToResponse(order);
     }
 
     // Admin: Update order status
+    @Transactional
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status, Authentication auth) {
         checkAdmin(auth);
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+                .orElseThrow(this::orderNotFound);
         order.setStatus(status);
-        return mapToResponse(orderRepository.save(order));
+        Order savedOrder = orderRepository.save(order);
+        orderEventRepository.save(OrderEvent.of(savedOrder));
+        return mapToResponse(savedOrder);
+    }
+
+    // Admin: every order's lifecycle events; customer: only their own
+    public SseEmitter streamEvents(Long fromOffset, Authentication auth) {
+        if (isAdmin(auth)) {
+            return orderEventStream.subscribe(fromOffset, event -> true);
+        }
+        checkCustomer(auth);
+        String username = auth.getName();
+        return orderEventStream.subscribe(fromOffset, event -> username.equals(event.getUsername()));
     }
 
     // -----------------------------
+    static SortedMap<Long, Integer> mergeLines(OrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
+        for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            if (itemRequest.getProductId() == null || itemRequest.getQuantity() <= 0) {
+                throw new RuntimeException("Each item needs a product id and a positive quantity");
+            }
+        }
+
+        // Merge duplicate lines; the sorted map also fixes the row-lock order so concurrent orders never deadlock
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            try {
+                quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                // a wrapped-around negative quantity would pass the stock check and add stock instead
+                throw new RuntimeException("Quantity too large for product: " + itemRequest.getProductId());
+            }
+        }
+        return quantities;
+    }
+
+    // Newest first. Page mode skips page * size rows; cursor mode seeks below the last id handed out.
+    private PageResponse<OrderResponse> findOrders(String username, OrderQuery query) {
+        int pageSize = resolvePageSize(query.getSize());
+        List<Long> ids = orderRepository.findPageIds(toFilter(username, query), offset(query, pageSize), pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        Map<Long, Order> orders = ids.isEmpty() ? Map.of() : orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderResponse> items = ids.stream()
+                .map(orders::get)
+                .map(OrderService::mapToResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasMore ? Cursors.encode(ids.get(ids.size() - 1)) : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    private PageResponse<OrderSummaryResponse> findSummaries(String username, OrderQuery query) {
+        int pageSize = resolvePageSize(query.getSize());
+        List<OrderSummaryResponse> summaries =
+                orderRepository.findSummaries(toFilter(username, query), offset(query, pageSize), pageSize + 1);
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? Cursors.encode(summaries.get(summaries.size() - 1).getId()) : null;
+        return new PageResponse<>(summaries, nextCursor);
+    }
+
+    private OrderFilter toFilter(String username, OrderQuery query) {
+        Long beforeId = null;
+        if (query.getPage() == null) {
+            long lastId = Cursors.decode(query.getCursor());
+            beforeId = lastId > 0 ? lastId : null;
+        }
+        return new OrderFilter(username, query.getStatus(), query.getFrom(), query.getTo(), beforeId);
+    }
+
+    private int offset(OrderQuery query, int pageSize) {
+        if (query.getPage() == null) {
+            return 0;
+        }
+        if (query.getPage() < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        return Math.multiplyExact(query.getPage(), pageSize);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private RuntimeException orderNotFound() {
+        metrics.notFound("order");
+        return new RuntimeException("Order not found");
+    }
+
+    private void checkCanView(String orderUsername, Authentication auth) {
+        if (!isAdmin(auth)) {
+            checkCustomer(auth);
+            if (!orderUsername.equals(auth.getName())) {
+                throw new RuntimeException("Order not found"); // don't reveal other customers' order ids
+            }
+        }
+    }
+
     private void checkCustomer(Authentication auth) {
         if (auth == null || !auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals(Role.ROLE_CUSTOMER.name()))) {
@@ -97,26 +343,40 @@ public class OrderService {
     }
 
     private void checkAdmin(Authentication auth) {
-        if (auth == null || !auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals(Role.ROLE_ADMIN.name()))) {
+        if (!isAdmin(auth)) {
             throw new SecurityException("Access denied: Admins only");
         }
     }
 
-    private OrderResponse mapToResponse(Order order) {
+    private boolean isAdmin(Authentication auth) {
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals(Role.ROLE_ADMIN.name()));
+    }
+
+    // Exact and allocation-free: one multiply-add per line, no boxing or stream pipeline
+    static long total(List<OrderItem> items) {
+        long total = 0;
+        for (OrderItem item : items) {
+            total = Math.addExact(total, Money.times(item.getPriceMinor(), item.getQuantity()));
+        }
+        return total;
+    }
+
+    static OrderResponse mapToResponse(Order order) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
         response.setUsername(order.getUsername());
         response.setStatus(order.getStatus());
         response.setCreatedAt(order.getCreatedAt());
-        response.setTotal(order.getTotal());
+        response.setTotal(Money.toDecimal(order.getTotalMinor(), order.getCurrency()));
+        response.setCurrency(order.getCurrency());
 
         List<OrderResponse.OrderItemResponse> itemResponses = order.getItems().stream()
                 .map(i -> {
                     OrderResponse.OrderItemResponse item = new OrderResponse.OrderItemResponse();
                     item.setProductId(i.getProductId());
                     item.setProductName(i.getProductName());
-                    item.setPrice(i.getPrice());
+                    item.setPrice(Money.toDecimal(i.getPriceMinor(), order.getCurrency()));
                     item.setQuantity(i.getQuantity());
                     return item;
                 }).collect(Collectors.toList());
@@ -0,0 +1,351 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.browse.ProductColumnStore;
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.ProductImportReport;
+import com.example.ecommerce.dto.ProductImportRow;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.money.StoreCurrency;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Catalog import/export. Both directions stream: an import holds one batch of rows at a time,
+// an export writes rows straight from the database cursor.
+@Service
+public class ProductBulkService {
+
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String CSV_HEADER = "id,name,description,price,currency,stock,category";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductService productService;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductColumnStore productColumnStore;
+    private final StoreCurrency storeCurrency;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public ProductBulkService(ProductRepository productRepository,
+                              CategoryRepository categoryRepository,
+                              ProductService productService,
+                              CatalogCache catalogCache,
+                              ProductSearchIndex productSearchIndex,
+                              ProductColumnStore productColumnStore,
+                              StoreCurrency storeCurrency,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.catalog.import.batch-size:500}") int batchSize,
+                              @Value("${app.catalog.import.max-errors:1000}") int maxErrors) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productService = productService;
+        this.catalogCache = catalogCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productColumnStore = productColumnStore;
+        this.storeCurrency = storeCurrency;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    // Admin-only: upsert every row, batchSize rows per transaction. Bad rows are reported and skipped;
+    // batches already committed stay committed.
+    public ProductImportReport importProducts(InputStream body, MediaType format, Authentication auth) throws IOException {
+        checkAdmin(auth);
+
+        // Category names resolved once for the whole run
+        Map<String, Long> categoryIds = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getName, Category::getId, (a, b) -> a));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = CSV.isCompatibleWith(format) ? csvRows(reader) : ndjsonRows(reader);
+
+        Tally tally = new Tally();
+        List<ParsedRow> batch = new ArrayList<>(batchSize);
+        ParsedRow row;
+        while ((row = rows.next()) != null) {
+            tally.rows++;
+            String problem = row.error() != null ? row.error() : validate(row.data(), categoryIds);
+            if (problem != null) {
+                tally.fail(row.line(), problem);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                write(batch, categoryIds, tally);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, categoryIds, tally);
+        }
+        // One reload instead of a copy of the whole column store per committed batch
+        if (tally.created + tally.updated > 0) {
+            productColumnStore.reload();
+        }
+        return tally.toReport();
+    }
+
+    // Admin-only: the whole catalog as CSV (same columns the import reads) or NDJSON
+    public StreamingResponseBody exportProducts(MediaType format, Authentication auth) {
+        checkAdmin(auth);
+        boolean csv = CSV.isCompatibleWith(format);
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            productService.streamAllProducts(product -> {
+                try {
+                    if (csv) {
+                        writer.write(product.getId() + "," + CsvReader.quote(product.getName()) + ","
+                                + CsvReader.quote(product.getDescription()) + "," + product.getPrice().toPlainString() + ","
+                                + product.getCurrency() + "," + product.getStock() + "," + CsvReader.quote(product.getCategoryName()));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(product));
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    // -----------------------------
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        columns.putIfAbsent("category", columns.get("categoryname"));
+        for (String required : List.of("name", "price", "stock", "category")) {
+            if (columns.get(required) == null) {
+                throw new IllegalArgumentException("CSV header must include name, price, stock and category");
+            }
+        }
+
+        return () -> {
+            List<String> fields;
+            try {
+                do {
+                    fields = csv.next();
+                } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(csv.recordLine(), null, e.getMessage()); // the quote ran to end of input
+            }
+            if (fields == null) {
+                return null;
+            }
+            long line = csv.recordLine();
+            if (fields.size() != header.size()) {
+                return new ParsedRow(line, null, "Expected " + header.size() + " fields but found " + fields.size());
+            }
+            try {
+                ProductImportRow data = new ProductImportRow();
+                data.setId(parse(fields, columns.get("id"), Long::valueOf));
+                data.setName(parse(fields, columns.get("name"), Function.identity()));
+                data.setDescription(parse(fields, columns.get("description"), Function.identity()));
+                data.setPrice(parse(fields, columns.get("price"), BigDecimal::new));
+                data.setCurrency(parse(fields, columns.get("currency"), Function.identity()));
+                data.setStock(parse(fields, columns.get("stock"), Integer::valueOf));
+                data.setCategory(parse(fields, columns.get("category"), Function.identity()));
+                return new ParsedRow(line, data, null);
+            } catch (NumberFormatException e) {
+                return new ParsedRow(line, null, "Invalid number: " + e.getMessage());
+            }
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                ProductImportRow data = objectMapper.readValue(text, ProductImportRow.class);
+                if (data == null) {
+                    return new ParsedRow(line[0], null, "Expected a JSON object"); // the line was literally null
+                }
+                return new ParsedRow(line[0], data, null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(line[0], null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static <T> T parse(List<String> fields, Integer column, Function<String, T> parser) {
+        if (column == null || fields.get(column).isBlank()) {
+            return null;
+        }
+        return parser.apply(fields.get(column).trim());
+    }
+
+    private String validate(ProductImportRow row, Map<String, Long> categoryIds) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (row.getCurrency() != null && !row.getCurrency().equals(storeCurrency.code())) {
+            return "Currency must be " + storeCurrency.code();
+        }
+        try {
+            storeCurrency.price(row.getPrice());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (row.getStock() == null || row.getStock() < 0) {
+            return "Stock must be zero or more";
+        }
+        if (row.getCategory() == null || !categoryIds.containsKey(row.getCategory())) {
+            return "Unknown category: " + row.getCategory();
+        }
+        return null;
+    }
+
+    // A batch that fails to commit is retried row by row so one bad row only costs itself
+    private void write(List<ParsedRow> batch, Map<String, Long> categoryIds, Tally tally) {
+        try {
+            tally.merge(transactionTemplate.execute(status -> upsert(batch, categoryIds)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                tally.fail(batch.get(0).line(), "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            for (ParsedRow row : batch) {
+                write(List.of(row), categoryIds, tally);
+            }
+        }
+    }
+
+    // One query for the batch's existing rows, then one batched insert/update on commit
+    private Tally upsert(List<ParsedRow> batch, Map<String, Long> categoryIds) {
+        Set<Long> ids = batch.stream()
+                .map(row -> row.data().getId())
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, Product> existing = ids.isEmpty() ? Map.of() : productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Tally result = new Tally();
+        List<Product> products = new ArrayList<>(batch.size());
+        for (ParsedRow row : batch) {
+            ProductImportRow data = row.data();
+            Product product;
+            if (data.getId() != null) {
+                product = existing.get(data.getId());
+                if (product == null) {
+                    result.fail(row.line(), "Product not found: " + data.getId());
+                    continue;
+                }
+                result.updated++;
+            } else {
+                product = new Product();
+                result.created++;
+            }
+            product.setName(data.getName());
+            product.setDescription(data.getDescription());
+            product.setPriceMinor(storeCurrency.price(data.getPrice()));
+            product.setCurrency(storeCurrency.code());
+            product.setStock(data.getStock());
+            product.setCategory(categoryRepository.getReferenceById(categoryIds.get(data.getCategory())));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        catalogCache.evictAllProducts();
+        products.forEach(productSearchIndex::indexAfterCommit);
+        return result;
+    }
+
+    private void checkAdmin(Authentication auth) {
+        if (auth == null || !auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals(Role.ROLE_ADMIN.name()))) {
+            throw new SecurityException("Access denied: Admins only");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+
+    // Either data or error is set
+    private record ParsedRow(long line, ProductImportRow data, String error) {
+    }
+
+    private final class Tally {
+        private long rows;
+        private long created;
+        private long updated;
+        private long failed;
+        private final List<ProductImportReport.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportReport.RowError(line, message));
+            }
+        }
+
+        private void merge(Tally batch) {
+            created += batch.created;
+            updated += batch.updated;
+            batch.errors.forEach(error -> fail(error.getLine(), error.getMessage()));
+        }
+
+        private ProductImportReport toReport() {
+            return new ProductImportReport(rows, created, updated, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -1,18 +1,41 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.browse.BrowsePage;
+import com.example.ecommerce.browse.BrowseQuery;
+import com.example.ecommerce.browse.ProductColumnStore;
+import com.example.ecommerce.cache.CatalogCache;
+import com.example.ecommerce.dto.PageResponse;
+import com.example.ecommerce.dto.ProductBrowseResponse;
 import com.example.ecommerce.dto.ProductRequest;
 import com.example.ecommerce.dto.ProductResponse;
+import com.example.ecommerce.dto.ProductSearchResponse;
 import com.example.ecommerce.entity.Category;
 import com.example.ecommerce.entity.Product;
 import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.money.Money;
+import com.example.ecommerce.money.StoreCurrency;
 import com.example.ecommerce.repository.CategoryRepository;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.search.SearchQuery;
+import com.example.ecommerce.search.SearchResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,68 +43,203 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductColumnStore productColumnStore;
+    private final StoreCurrency storeCurrency;
+    private final ServiceMetrics metrics;
 
-    // List all products (public)
-    public List<ProductResponse> listAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Value("${app.catalog.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.catalog.max-page-size:500}")
+    private int maxPageSize;
+
+    // List products one keyset page at a time (public)
+    public PageResponse<ProductResponse> listProducts(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = Cursors.decode(cursor);
+        return metrics.catalogPage().record(
+                () -> catalogCache.getProductPage(afterId, pageSize, () -> loadPage(afterId, pageSize)));
+    }
+
+    private PageResponse<ProductResponse> loadPage(long afterId, int pageSize) {
+        // Fetch one extra row to learn whether another page exists
+        List<ProductResponse> items = productRepository.findResponsesAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? Cursors.encode(items.get(items.size() - 1).getId()) : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    // Stream every product to the sink as rows arrive from the database (public)
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductResponse> sink) {
+        try (Stream<ProductResponse> products = productRepository.streamAllResponses()) {
+            products.forEach(sink);
+        }
     }
 
     // Get products by category (public)
     public List<ProductResponse> getProductsByCategory(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found"));
-        return productRepository.findByCategory(category)
+        return metrics.catalogCategory().record(
+                () -> catalogCache.getProductsByCategory(categoryId, () -> loadProductsByCategory(categoryId)));
+    }
+
+    private List<ProductResponse> loadProductsByCategory(Long categoryId) {
+        List<ProductResponse> products = productRepository.findResponsesByCategoryId(categoryId);
+        // Only an empty result needs the extra lookup to tell "no products" from "no such category"
+        if (products.isEmpty() && !categoryRepository.existsById(categoryId)) {
+            throw notFound("category", "Category not found");
+        }
+        return products;
+    }
+
+    // Ranked full-text search over name and description (public); results are read fresh from the database
+    public ProductSearchResponse searchProducts(String text, BigDecimal minPrice, BigDecimal maxPrice, Long categoryId,
+                                                boolean prefix, boolean fuzzy, Integer size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        SearchQuery query = new SearchQuery(text, storeCurrency.lowerBound(minPrice), storeCurrency.upperBound(maxPrice),
+                categoryId, prefix, fuzzy, resolvePageSize(size));
+        return metrics.catalogSearch().record(() -> search(query));
+    }
+
+    private ProductSearchResponse search(SearchQuery query) {
+        SearchResult result = productSearchIndex.search(query);
+        if (result.hits().isEmpty()) {
+            return new ProductSearchResponse(List.of(), result.totalHits());
+        }
+
+        Map<Long, ProductResponse> products = productRepository.findResponsesByIdIn(
+                        result.hits().stream().map(SearchResult.Hit::productId).collect(Collectors.toList()))
                 .stream()
-                .map(this::mapToResponse)
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity()));
+        List<ProductResponse> items = result.hits().stream()
+                .map(hit -> products.get(hit.productId()))
+                .filter(Objects::nonNull) // deleted since the index answered
                 .collect(Collectors.toList());
+        return new ProductSearchResponse(items, result.totalHits());
+    }
+
+    // Filtered, sorted browse with per-category counts (public); answered from the in-memory column store.
+    // sort is id (default), price or price,desc; the cursor only fits the sort it was handed out with.
+    public ProductBrowseResponse browseProducts(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock,
+                                                String sort, String cursor, Integer size) {
+        BrowseQuery.Sort order = switch (sort == null ? "id" : sort.toLowerCase(Locale.ROOT)) {
+            case "id" -> BrowseQuery.Sort.ID;
+            case "price", "price,asc" -> BrowseQuery.Sort.PRICE_ASC;
+            case "price,desc" -> BrowseQuery.Sort.PRICE_DESC;
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
+        int pageSize = resolvePageSize(size);
+
+        Long afterPrice = null;
+        Long afterId = null;
+        if (order == BrowseQuery.Sort.ID) {
+            afterId = cursor != null ? Cursors.decode(cursor) : null;
+        } else {
+            Cursors.PriceKey after = Cursors.decodePriceKey(cursor);
+            if (after != null) {
+                afterPrice = after.price();
+                afterId = after.id();
+            }
+        }
+
+        BrowseQuery query = new BrowseQuery(categoryId, storeCurrency.lowerBound(minPrice),
+                storeCurrency.upperBound(maxPrice), inStock, order, afterPrice, afterId, pageSize);
+        BrowsePage page = metrics.catalogBrowse().record(() -> productColumnStore.current().browse(query));
+        String nextCursor = null;
+        if (page.hasMore()) {
+            ProductResponse last = page.items().get(page.items().size() - 1);
+            nextCursor = order == BrowseQuery.Sort.ID
+                    ? Cursors.encode(last.getId())
+                    : Cursors.encode(Money.toMinor(last.getPrice(), last.getCurrency()), last.getId());
+        }
+        return new ProductBrowseResponse(page.items(), nextCursor, page.totalHits(), page.facets());
     }
 
     // Admin-only: add product
+    @Transactional
     public ProductResponse addProduct(ProductRequest request, Authentication auth) {
         checkAdmin(auth);
 
         Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+                .orElseThrow(() -> notFound("category", "Category not found"));
 
         Product product = new Product();
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
+        product.setPriceMinor(storeCurrency.price(request.getPrice()));
+        product.setCurrency(storeCurrency.code());
         product.setStock(request.getStock());
         product.setCategory(category);
 
-        return mapToResponse(productRepository.save(product));
+        product = productRepository.save(product);
+        catalogCache.evictProduct(product.getId(), category.getId());
+        productSearchIndex.indexAfterCommit(product);
+        productColumnStore.upsertAfterCommit(product);
+        return mapToResponse(product);
     }
 
     // Admin-only: update product
+    @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request, Authentication auth) {
         checkAdmin(auth);
 
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> notFound("product", "Product not found"));
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
 
         Category category = categoryRepository.findById(request.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+                .orElseThrow(() -> notFound("category", "Category not found"));
 
         product.setName(request.getName());
         product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
+        product.setPriceMinor(storeCurrency.price(request.getPrice()));
+        product.setCurrency(storeCurrency.code());
         product.setStock(request.getStock());
         product.setCategory(category);
 
-        return mapToResponse(productRepository.save(product));
+        product = productRepository.save(product);
+        catalogCache.evictProduct(id, previousCategoryId, category.getId());
+        productSearchIndex.indexAfterCommit(product);
+        productColumnStore.upsertAfterCommit(product);
+        return mapToResponse(product);
     }
 
     // Admin-only: delete product
+    @Transactional
     public void deleteProduct(Long id, Authentication auth) {
         checkAdmin(auth);
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            catalogCache.evictProduct(id, product.getCategory() != null ? product.getCategory().getId() : null);
+            productSearchIndex.removeAfterCommit(id);
+            productColumnStore.removeAfterCommit(id);
+        });
     }
 
     // ----------------------------
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private RuntimeException notFound(String entity, String message) {
+        metrics.notFound(entity);
+        return new RuntimeException(message);
+    }
+
     private void checkAdmin(Authentication auth) {
         if (auth == null || !auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals(Role.ROLE_ADMIN.name()))) {
@@ -89,12 +247,13 @@ public class ProductService {
         }
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    static ProductResponse mapToResponse(Product product) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
         response.setName(product.getName());
         response.setDescription(product.getDescription());
-        response.setPrice(product.getPrice());
+        response.setPrice(Money.toDecimal(product.getPriceMinor(), product.getCurrency()));
+        response.setCurrency(product.getCurrency());
         response.setStock(product.getStock());
         response.setCategoryName(product.getCategory().getName());
         return response;
@@ -0,0 +1,148 @@
+package com.example.ecommerce.browse;
+
+import com.example.ecommerce.dto.CategoryFacet;
+import com.example.ecommerce.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProductColumnsTests {
+
+    private ProductColumns columns;
+
+    //   id  price  stock  category
+    //   1    500     3    1 tools
+    //   2    200     0    1 tools
+    //   3    500     7    2 garden
+    //   4    100     1    -
+    //   5    900     2    2 garden
+    @BeforeEach
+    void setUp() {
+        columns = ProductColumns.builder()
+                .add(row(1, 500, 3, 1L, "tools"))
+                .add(row(2, 200, 0, 1L, "tools"))
+                .add(row(3, 500, 7, 2L, "garden"))
+                .add(row(4, 100, 1, null, null))
+                .add(row(5, 900, 2, 2L, "garden"))
+                .build();
+    }
+
+    @Test
+    void pagesByIdWithCursor() {
+        BrowsePage first = columns.browse(query(null, null, null, false, BrowseQuery.Sort.ID, null, null, 2));
+        assertThat(ids(first)).containsExactly(1L, 2L);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.totalHits()).isEqualTo(5);
+
+        BrowsePage last = columns.browse(query(null, null, null, false, BrowseQuery.Sort.ID, null, 4L, 2));
+        assertThat(ids(last)).containsExactly(5L);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void pagesByPriceWithTiesInIdOrder() {
+        BrowsePage first = columns.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_ASC, null, null, 3));
+        assertThat(ids(first)).containsExactly(4L, 2L, 1L);
+
+        // resume after (500, 1): the tie at 500 continues with id 3
+        BrowsePage next = columns.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_ASC, 500L, 1L, 3));
+        assertThat(ids(next)).containsExactly(3L, 5L);
+        assertThat(next.hasMore()).isFalse();
+
+        BrowsePage descending = columns.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_DESC, null, null, 2));
+        assertThat(ids(descending)).containsExactly(5L, 3L);
+        BrowsePage descendingNext = columns.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_DESC, 500L, 3L, 2));
+        assertThat(ids(descendingNext)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void filtersByPriceStockAndCategoryWithFacets() {
+        BrowsePage page = columns.browse(query(null, 200L, 500L, true, BrowseQuery.Sort.ID, null, null, 10));
+        assertThat(ids(page)).containsExactly(1L, 3L);
+        assertThat(page.facets()).extracting(CategoryFacet::getCategoryId, CategoryFacet::getCount)
+                .containsExactly(tuple(1L, 1), tuple(2L, 1));
+
+        BrowsePage garden = columns.browse(query(2L, null, null, false, BrowseQuery.Sort.PRICE_ASC, null, null, 10));
+        assertThat(ids(garden)).containsExactly(3L, 5L);
+        assertThat(garden.totalHits()).isEqualTo(2);
+
+        BrowsePage unknown = columns.browse(query(99L, null, null, false, BrowseQuery.Sort.ID, null, null, 10));
+        assertThat(unknown.items()).isEmpty();
+        assertThat(unknown.totalHits()).isZero();
+        assertThat(unknown.facets()).hasSize(2);
+    }
+
+    @Test
+    void responsesCarryExactPriceAndCurrency() {
+        ProductResponse cheapest = columns.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_ASC, null, null, 1))
+                .items().get(0);
+        assertThat(cheapest.getPrice()).isEqualTo(new BigDecimal("1.00"));
+        assertThat(cheapest.getCurrency()).isEqualTo("USD");
+        assertThat(cheapest.getCategoryName()).isNull();
+    }
+
+    @Test
+    void withChangesMergesInsertsUpdatesAndDeletesInPriceOrder() {
+        TreeMap<Long, ProductRow> changes = new TreeMap<>();
+        changes.put(2L, row(2, 950, 4, 1L, "tools")); // moves to the most expensive
+        changes.put(3L, null); // deleted
+        changes.put(6L, row(6, 500, 1, 3L, "kitchen")); // ties with id 1 at 500
+        changes.put(0L, null); // deleting an unknown id is a no-op
+
+        ProductColumns changed = columns.withChanges(changes);
+
+        assertThat(changed.size()).isEqualTo(5);
+        assertThat(ids(changed.browse(query(null, null, null, false, BrowseQuery.Sort.ID, null, null, 10))))
+                .containsExactly(1L, 2L, 4L, 5L, 6L);
+        assertThat(ids(changed.browse(query(null, null, null, false, BrowseQuery.Sort.PRICE_ASC, null, null, 10))))
+                .containsExactly(4L, 1L, 6L, 5L, 2L);
+        assertThat(changed.browse(query(3L, null, null, false, BrowseQuery.Sort.ID, null, null, 10)).totalHits())
+                .isEqualTo(1);
+        // the original snapshot is untouched
+        assertThat(ids(columns.browse(query(null, null, null, false, BrowseQuery.Sort.ID, null, null, 10))))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void withStockLevelsUpdatesInStockFilterAndCounts() {
+        ProductColumns restocked = columns.withStockLevels(Map.of(2L, 5, 5L, 0, 42L, 9));
+
+        BrowsePage inStock = restocked.browse(query(null, null, null, true, BrowseQuery.Sort.PRICE_ASC, null, null, 10));
+        assertThat(ids(inStock)).containsExactly(4L, 2L, 1L, 3L);
+        assertThat(inStock.totalHits()).isEqualTo(4);
+        assertThat(inStock.facets()).extracting(CategoryFacet::getCategoryId, CategoryFacet::getCount)
+                .containsExactly(tuple(1L, 2), tuple(2L, 1));
+
+        assertThat(columns.browse(query(null, null, null, true, BrowseQuery.Sort.ID, null, null, 10)).totalHits())
+                .isEqualTo(4); // 1, 3, 4, 5 before the change
+    }
+
+    @Test
+    void withCategoryNameRenamesFacetsAndRows() {
+        ProductColumns renamed = columns.withCategoryName(1L, "hand tools");
+
+        BrowsePage page = renamed.browse(query(1L, null, null, false, BrowseQuery.Sort.ID, null, null, 10));
+        assertThat(page.items()).extracting(ProductResponse::getCategoryName).containsOnly("hand tools");
+        assertThat(columns.withCategoryName(99L, "none")).isSameAs(columns);
+    }
+
+    private static ProductRow row(long id, long price, int stock, Long categoryId, String categoryName) {
+        return new ProductRow(id, "product " + id, "description " + id, price, "USD", stock, categoryId, categoryName);
+    }
+
+    private static BrowseQuery query(Long categoryId, Long minPrice, Long maxPrice, boolean inStock,
+                                     BrowseQuery.Sort sort, Long afterPrice, Long afterId, int limit) {
+        return new BrowseQuery(categoryId, minPrice, maxPrice, inStock, sort, afterPrice, afterId, limit);
+    }
+
+    private static List<Long> ids(BrowsePage page) {
+        return page.items().stream().map(ProductResponse::getId).toList();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.dto.CategoryResponse;
+import com.example.ecommerce.dto.PageResponse;
+import com.example.ecommerce.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheTests {
+
+    private final CatalogCache cache = new CatalogCache(1000, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void cachesLoadsUntilEvicted() {
+        cache.getProductPage(0, 20, () -> page("old"));
+        cache.getProductPage(0, 20, () -> page("old"));
+        assertThat(loads).hasValue(1);
+
+        long version = cache.version();
+        cache.evictProduct(1L);
+
+        assertThat(cache.version()).isGreaterThan(version);
+        assertThat(cache.getProductPage(0, 20, () -> page("new")).getItems().get(0).getName()).isEqualTo("new");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictionOnlyDropsPagesHoldingTheProduct() {
+        cache.getProductPage(0, 1, () -> new PageResponse<>(List.of(product(1L, "a")), "1"));
+        cache.getProductPage(1, 1, () -> new PageResponse<>(List.of(product(2L, "b")), "2"));
+
+        cache.evictProduct(2L);
+
+        cache.getProductPage(0, 1, () -> page("reloaded"));
+        cache.getProductPage(1, 1, () -> page("reloaded"));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void batchEvictionDropsEveryPageHoldingAProductWithOneVersionBump() {
+        cache.getProductPage(0, 2, () -> new PageResponse<>(List.of(product(1L, "a"), product(2L, "b")), "2"));
+        cache.getProductPage(2, 2, () -> new PageResponse<>(List.of(product(3L, "c"), product(4L, "d")), "4"));
+        cache.getProductPage(4, 2, () -> new PageResponse<>(List.of(product(5L, "e"), product(6L, "f")), "6"));
+        cache.getProductsByCategory(7L, () -> List.of(product(1L, "a")));
+        cache.getProductsByCategory(8L, () -> List.of(product(3L, "c")));
+        long version = cache.version();
+
+        cache.evictProducts(List.of(6L, 1L, 2L), Arrays.asList(7L, null, 7L));
+
+        assertThat(cache.version()).isEqualTo(version + 1);
+        cache.getProductPage(0, 2, () -> page("reloaded"));
+        cache.getProductPage(2, 2, () -> page("reloaded"));
+        cache.getProductPage(4, 2, () -> page("reloaded"));
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getProductsByCategory(7L, () -> List.of(product(1L, "new"))))
+                .extracting(ProductResponse::getName).containsExactly("new");
+        assertThat(cache.getProductsByCategory(8L, () -> List.of(product(3L, "new"))))
+                .extracting(ProductResponse::getName).containsExactly("c");
+    }
+
+    @Test
+    void pageLoadSpanningAnEvictionIsNotCached() throws Exception {
+        PageResponse<ProductResponse> loaded = loadWhile(() -> cache.evictProduct(1L),
+                loader -> cache.getProductPage(0, 20, () -> loader.apply(page("old"))));
+
+        assertThat(loaded.getItems().get(0).getName()).isEqualTo("old"); // the caller still gets what it read
+        assertThat(cache.getProductPage(0, 20, () -> page("new")).getItems().get(0).getName()).isEqualTo("new");
+    }
+
+    @Test
+    void categoryLoadSpanningAnEvictionIsNotCached() throws Exception {
+        List<CategoryResponse> loaded = loadWhile(cache::evictCategories,
+                loader -> cache.getCategories(() -> loader.apply(List.of(new CategoryResponse(1L, "old")))));
+
+        assertThat(loaded).extracting(CategoryResponse::getName).containsExactly("old");
+        assertThat(cache.getCategories(() -> List.of(new CategoryResponse(1L, "new"))))
+                .extracting(CategoryResponse::getName).containsExactly("new");
+    }
+
+    @Test
+    void categoryListingLoadSpanningAnEvictionIsNotCached() throws Exception {
+        List<ProductResponse> loaded = loadWhile(cache::evictAllProducts,
+                loader -> cache.getProductsByCategory(7L, () -> loader.apply(List.of(product(1L, "old")))));
+
+        assertThat(loaded).extracting(ProductResponse::getName).containsExactly("old");
+        assertThat(cache.getProductsByCategory(7L, () -> List.of(product(1L, "new"))))
+                .extracting(ProductResponse::getName).containsExactly("new");
+    }
+
+    // -----------------------------
+    // Runs load on another thread and commits eviction while its loader is between reading and returning
+    private <T> T loadWhile(Runnable eviction, Function<UnaryOperator<T>, T> load)
+            throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> load.apply(value -> {
+            reading.countDown();
+            await(evicted);
+            return value;
+        }));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        eviction.run();
+        evicted.countDown();
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    private PageResponse<ProductResponse> page(String name) {
+        loads.incrementAndGet();
+        return new PageResponse<>(List.of(product(1L, name)), null);
+    }
+
+    private static ProductResponse product(long id, String name) {
+        return new ProductResponse(id, name, null, 100, "USD", 1, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ecommerce.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponsesTests {
+
+    @Test
+    void acceptsGzipWhenListed() {
+        assertThat(CatalogResponses.acceptsGzip("gzip")).isTrue();
+        assertThat(CatalogResponses.acceptsGzip("br, GZIP;q=0.5, deflate")).isTrue();
+        assertThat(CatalogResponses.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void refusesGzipWithZeroQuality() {
+        assertThat(CatalogResponses.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CatalogResponses.acceptsGzip("br, gzip ; q=0.000")).isFalse();
+        assertThat(CatalogResponses.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(CatalogResponses.acceptsGzip("gzip;q=oops")).isFalse();
+    }
+
+    @Test
+    void wildcardStandsForGzipWhenGzipIsNotListed() {
+        assertThat(CatalogResponses.acceptsGzip("*")).isTrue();
+        assertThat(CatalogResponses.acceptsGzip("br, *;q=0")).isFalse();
+    }
+
+    @Test
+    void otherOrMissingEncodingsGetTheUncompressedBody() {
+        assertThat(CatalogResponses.acceptsGzip(null)).isFalse();
+        assertThat(CatalogResponses.acceptsGzip("")).isFalse();
+        assertThat(CatalogResponses.acceptsGzip("identity, br")).isFalse();
+    }
+}
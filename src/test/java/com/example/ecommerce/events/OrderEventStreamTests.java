@@ -0,0 +1,106 @@
+package com.example.ecommerce.events;
+
+import com.example.ecommerce.dto.OrderEventMessage;
+import com.example.ecommerce.entity.OrderStatus;
+import com.example.ecommerce.repository.OrderEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OrderEventStreamTests {
+
+    private final OrderEventStream stream = new OrderEventStream(mock(OrderEventRepository.class),
+            new SimpleAsyncTaskExecutor(), 100, 3, Duration.ofMinutes(1));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseStalledClient() {
+        release.countDown();
+    }
+
+    @Test
+    void stalledClientDoesNotHoldUpPublishOrOtherClients() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        subscribe(event -> {
+            stalled.countDown();
+            await(release); // stands in for a send blocked on a slow connection
+            return true;
+        });
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        subscribe(event -> seen.add(event.getOffset()));
+
+        publishWithin(event(1));
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        publishWithin(event(2));
+
+        awaitUntil(() -> seen.size() == 2);
+        assertThat(seen).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void dropsAClientWhoseQueueOverflows() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        subscribe(event -> {
+            stalled.countDown();
+            await(release);
+            return true;
+        });
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        subscribe(event -> seen.add(event.getOffset()));
+        publishWithin(event(1));
+        assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (long offset = 2; offset <= 5; offset++) {
+            publishWithin(event(offset)); // the stalled client holds 1 in flight and can queue 3 more
+            int delivered = (int) offset;
+            awaitUntil(() -> seen.size() == delivered); // the healthy client keeps its queue empty
+        }
+
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        assertThat(seen).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    // -----------------------------
+    private void subscribe(Predicate<OrderEventMessage> visible) throws InterruptedException {
+        int before = stream.subscriberCount();
+        stream.subscribe(0L, visible);
+        awaitUntil(() -> stream.subscriberCount() == before + 1); // joins once catch-up finishes
+    }
+
+    private void publishWithin(OrderEventMessage event) throws Exception {
+        CompletableFuture.runAsync(() -> stream.publish(List.of(event))).get(1, TimeUnit.SECONDS);
+    }
+
+    private static OrderEventMessage event(long offset) {
+        return new OrderEventMessage(offset, offset, "alice", OrderStatus.CREATED, LocalDateTime.now());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
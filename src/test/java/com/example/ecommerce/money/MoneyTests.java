@@ -0,0 +1,65 @@
+package com.example.ecommerce.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+    @Test
+    void convertsExactlyBothWays() {
+        assertThat(Money.toMinor(new BigDecimal("19.99"), "USD")).isEqualTo(1999);
+        assertThat(Money.toMinor(new BigDecimal("20"), "USD")).isEqualTo(2000);
+        assertThat(Money.toMinor(new BigDecimal("1.500"), "USD")).isEqualTo(150); // trailing zeros are fine
+        assertThat(Money.toMinor(new BigDecimal("500"), "JPY")).isEqualTo(500);
+        assertThat(Money.toDecimal(1999, "USD")).isEqualTo(new BigDecimal("19.99"));
+        assertThat(Money.toDecimal(500, "JPY")).isEqualTo(new BigDecimal("500"));
+    }
+
+    @Test
+    void rejectsAmountsThatAreNotWholeMinorUnits() {
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("19.999"), "USD"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("0.5"), "JPY"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsAmountsBeyondLongWithoutExpandingThem() {
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("1e20000000"), "USD"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("1e-20000000"), "USD"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toMinor(new BigDecimal("92233720368547758.08"), "USD"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundsBoundsInTheRequestedDirection() {
+        assertThat(Money.toMinor(new BigDecimal("10.001"), "USD", RoundingMode.CEILING)).isEqualTo(1001);
+        assertThat(Money.toMinor(new BigDecimal("10.009"), "USD", RoundingMode.FLOOR)).isEqualTo(1000);
+        assertThat(Money.toMinor(new BigDecimal("-0.001"), "USD", RoundingMode.FLOOR)).isEqualTo(-1);
+        assertThat(Money.toMinor(new BigDecimal("0.001"), "USD", RoundingMode.FLOOR)).isZero();
+    }
+
+    @Test
+    void clampsHugeBoundsWithoutExpandingThem() {
+        assertThat(Money.toMinor(new BigDecimal("1e20000000"), "USD", RoundingMode.FLOOR)).isEqualTo(Long.MAX_VALUE);
+        assertThat(Money.toMinor(new BigDecimal("-1e20000000"), "USD", RoundingMode.CEILING)).isEqualTo(Long.MIN_VALUE);
+        assertThat(Money.toMinor(new BigDecimal("1e-20000000"), "USD", RoundingMode.CEILING)).isEqualTo(1);
+        assertThat(Money.toMinor(new BigDecimal("1e-20000000"), "USD", RoundingMode.FLOOR)).isZero();
+        assertThat(Money.toMinor(new BigDecimal("-1e-20000000"), "USD", RoundingMode.FLOOR)).isEqualTo(-1);
+        assertThat(Money.toMinor(new BigDecimal("92233720368547758.08"), "USD", RoundingMode.FLOOR))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void multiplicationFailsInsteadOfWrapping() {
+        assertThat(Money.times(1999, 3)).isEqualTo(5997);
+        assertThatThrownBy(() -> Money.times(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+    }
+}
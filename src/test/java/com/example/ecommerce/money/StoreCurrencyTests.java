@@ -0,0 +1,43 @@
+package com.example.ecommerce.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoreCurrencyTests {
+
+    private final StoreCurrency usd = new StoreCurrency("USD");
+
+    @Test
+    void rejectsUnknownCurrency() {
+        assertThatThrownBy(() -> new StoreCurrency("ABC")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pricesMustBePresentNonNegativeAndExact() {
+        assertThat(usd.price(new BigDecimal("4.50"))).isEqualTo(450);
+        assertThat(usd.price(BigDecimal.ZERO)).isZero();
+        assertThatThrownBy(() -> usd.price(null)).hasMessage("Price must be zero or more");
+        assertThatThrownBy(() -> usd.price(new BigDecimal("-1"))).hasMessage("Price must be zero or more");
+        assertThatThrownBy(() -> usd.price(new BigDecimal("4.505"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void boundsRoundInwardAndNullMeansUnbounded() {
+        assertThat(usd.lowerBound(new BigDecimal("9.991"))).isEqualTo(1000);
+        assertThat(usd.upperBound(new BigDecimal("9.999"))).isEqualTo(999);
+        assertThat(usd.lowerBound(null)).isNull();
+        assertThat(usd.upperBound(null)).isNull();
+    }
+
+    @Test
+    void hugeBoundsAreClampedQuickly() {
+        long start = System.nanoTime();
+        assertThat(usd.upperBound(new BigDecimal("1e20000000"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(usd.lowerBound(new BigDecimal("-1e20000000"))).isEqualTo(Long.MIN_VALUE);
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+    }
+}
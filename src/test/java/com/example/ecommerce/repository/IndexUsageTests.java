@@ -0,0 +1,123 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.OrderStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Captures the SQL Hibernate generates for each hot lookup, asks H2 for its plan and checks it is an index
+// lookup, not a table scan
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.ecommerce.repository.IndexUsageTests$CapturedSql")
+class IndexUsageTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void orderPageByUsernameUsesCompositeIndex() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        String sql = CapturedSql.single(() ->
+                orderRepository.findPageIds(new OrderFilter("alice", null, from, null, null), 0, 21));
+
+        assertThat(sql).isEqualTo("select o1_0.id from orders o1_0 where o1_0.username=? and o1_0.created_at>=? "
+                + "order by 1 desc offset ? rows fetch first ? rows only");
+        assertThat(plan(sql, "alice", from, 0, 21))
+                .containsIgnoringCase("idx_orders_username_created_at: username = ?1")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void orderPageByStatusUsesStatusIndex() {
+        String sql = CapturedSql.single(() ->
+                orderRepository.findPageIds(new OrderFilter(null, OrderStatus.CREATED, null, null, null), 0, 21));
+
+        assertThat(sql).isEqualTo("select o1_0.id from orders o1_0 where o1_0.status=? "
+                + "order by 1 desc offset ? rows fetch first ? rows only");
+        assertThat(plan(sql, OrderStatus.CREATED.name(), 0, 21))
+                .containsIgnoringCase("idx_orders_status_created_at: status = ?1")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void productsByCategoryUseCategoryIndex() {
+        String sql = CapturedSql.single(() -> productRepository.findResponsesByCategoryId(1L));
+
+        assertThat(sql).isEqualTo("select p1_0.id,p1_0.name,p1_0.description,p1_0.price_minor,p1_0.currency,p1_0.stock,"
+                + "c1_0.name from products p1_0 join categories c1_0 on c1_0.id=p1_0.category_id "
+                + "where p1_0.category_id=? order by p1_0.id");
+        assertThat(plan(sql, 1L))
+                .containsIgnoringCase("idx_products_category_id: category_id = ?1")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void orderItemsForAPageUseOrderIdIndex() {
+        String sql = CapturedSql.single(() -> orderRepository.findWithItemsByIdIn(List.of(1L, 2L)));
+
+        assertThat(sql).isEqualTo("select o1_0.id,o1_0.cancel_reason,o1_0.created_at,o1_0.currency,i1_0.order_id,i1_0.id,"
+                + "i1_0.price_minor,i1_0.product_id,i1_0.product_name,i1_0.quantity,o1_0.status,o1_0.total_minor,"
+                + "o1_0.username from orders o1_0 left join order_items i1_0 on o1_0.id=i1_0.order_id where o1_0.id in (?,?)");
+        assertThat(plan(sql, 1L, 2L))
+                .containsIgnoringCase("idx_order_items_order_id: order_id = o1_0.id")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void usersByUsernameUseUniqueIndex() {
+        String sql = CapturedSql.single(() -> userRepository.findByUsername("alice"));
+
+        assertThat(sql).isEqualTo("select u1_0.id,u1_0.password,u1_0.role,u1_0.username from users u1_0 where u1_0.username=?");
+        assertThat(plan(sql, "alice"))
+                .containsIgnoringCase("username = ?1 */")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private String plan(String sql, Object... parameters) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+
+    // Registered as Hibernate's statement inspector; records statements only while the test thread asks for them
+    public static class CapturedSql implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+        static String single(Runnable query) {
+            List<String> statements = new ArrayList<>();
+            captured.set(statements);
+            try {
+                query.run();
+            } finally {
+                captured.remove();
+            }
+            assertThat(statements).hasSize(1);
+            return statements.get(0);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = captured.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class StockRepositoryTests {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void locksMoreProductsThanOneInList() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            Product product = new Product();
+            product.setName("lock-" + i);
+            product.setPriceMinor(100);
+            product.setCurrency("USD");
+            product.setStock(i);
+            products.add(product);
+        }
+        SortedSet<Long> ids = new TreeSet<>();
+        productRepository.saveAllAndFlush(products).forEach(product -> ids.add(product.getId()));
+        ids.add(Long.MAX_VALUE); // no such row
+
+        Map<Long, StockRepository.LockedProduct> locked = stockRepository.lockAll(ids);
+
+        assertThat(locked).hasSize(2_500).doesNotContainKey(Long.MAX_VALUE);
+        assertThat(locked.values()).allSatisfy(product ->
+                assertThat(product.stock()).isEqualTo(Integer.parseInt(product.name().substring("lock-".length()))));
+    }
+
+    @Test
+    void locksNothingForNoIds() {
+        assertThat(stockRepository.lockAll(new TreeSet<>())).isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ecommerce.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTests {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.add(new SearchDocument(1, "Wireless Mouse", "compact mouse for travel", 2_500, 1L));
+        index.add(new SearchDocument(2, "Wired Mouse", "a mouse with a cable", 1_500, 1L));
+        index.add(new SearchDocument(3, "Wireless Keyboard", "quiet keys", 4_500, 2L));
+        index.add(new SearchDocument(4, "Desk Lamp", "warm light", 3_000, null));
+    }
+
+    @Test
+    void everyTermMustMatchAndNameOutranksDescription() {
+        assertThat(ids(search("wireless mouse"))).containsExactly(1L);
+        assertThat(ids(search("mouse"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(search("lamp cable"))).isEmpty();
+        assertThat(ids(search("unknown"))).isEmpty();
+    }
+
+    @Test
+    void updateReplacesTheOldText() {
+        index.add(new SearchDocument(4, "Desk Fan", "cool air", 3_000, null));
+
+        assertThat(ids(search("lamp"))).isEmpty();
+        assertThat(ids(search("fan"))).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.deadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removedDocumentsStopMatching() {
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+
+        assertThat(ids(search("wireless"))).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void reindexedCatalogKeepsPositiveScoresAndMultiTermMatches() {
+        InvertedIndex reindexed = new InvertedIndex();
+        for (int pass = 0; pass < 2; pass++) {
+            for (long id = 1; id <= 100; id++) {
+                String name = id % 2 == 0 ? "Wireless Mouse " + id : "Wireless Keyboard " + id;
+                reindexed.add(new SearchDocument(id, name, "description " + id, 1_000, null));
+            }
+        }
+
+        SearchResult single = reindexed.search(query("wireless", false, false));
+        assertThat(single.totalHits()).isEqualTo(100);
+        assertThat(single.hits()).allSatisfy(hit -> assertThat(hit.score()).isPositive());
+        assertThat(reindexed.search(query("wireless mouse", false, false)).totalHits()).isEqualTo(50);
+    }
+
+    @Test
+    void prefixExpandsOnlyTheLastTerm() {
+        assertThat(ids(index.search(query("wire", true, false)))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index.search(query("wire", false, false)))).isEmpty();
+        assertThat(ids(index.search(query("mou wireless", true, false)))).isEmpty();
+    }
+
+    @Test
+    void fuzzyAllowsOneTypoOnLongerTerms() {
+        assertThat(ids(index.search(query("keybaord", false, true)))).containsExactly(3L);
+        assertThat(ids(index.search(query("keybaord", false, false)))).isEmpty();
+        assertThat(ids(index.search(query("lmp", false, true)))).isEmpty(); // too short for fuzzy
+    }
+
+    @Test
+    void priceAndCategoryFiltersApplyAfterMatching() {
+        assertThat(ids(index.search(new SearchQuery("mouse", 2_000L, null, null, false, false, 10)))).containsExactly(1L);
+        assertThat(ids(index.search(new SearchQuery("mouse", null, 2_000L, null, false, false, 10)))).containsExactly(2L);
+        assertThat(ids(index.search(new SearchQuery("wireless", null, null, 2L, false, false, 10)))).containsExactly(3L);
+    }
+
+    @Test
+    void limitKeepsTheBestHitsButCountsAll() {
+        SearchResult result = index.search(new SearchQuery("mouse", null, null, null, false, false, 1));
+
+        assertThat(result.hits()).hasSize(1);
+        assertThat(result.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void withinOneEdit() {
+        assertThat(InvertedIndex.withinOneEdit("mouse", "mouse")).isTrue();
+        assertThat(InvertedIndex.withinOneEdit("mouse", "house")).isTrue(); // substitution
+        assertThat(InvertedIndex.withinOneEdit("mouse", "mose")).isTrue(); // deletion
+        assertThat(InvertedIndex.withinOneEdit("mouse", "mouuse")).isTrue(); // insertion
+        assertThat(InvertedIndex.withinOneEdit("mouse", "muose")).isTrue(); // transposition
+        assertThat(InvertedIndex.withinOneEdit("mouse", "mice")).isFalse();
+    }
+
+    private SearchResult search(String text) {
+        return index.search(query(text, false, false));
+    }
+
+    private static SearchQuery query(String text, boolean prefix, boolean fuzzy) {
+        return new SearchQuery(text, null, null, null, prefix, fuzzy, 10);
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.hits().stream().map(SearchResult.Hit::productId).toList();
+    }
+}
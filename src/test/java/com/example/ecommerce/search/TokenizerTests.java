@@ -0,0 +1,24 @@
+package com.example.ecommerce.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenizerTests {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigitsAndLowerCases() {
+        assertThat(Tokenizer.tokenize("USB-C Hub, 4K@60Hz!")).containsExactly("usb", "c", "hub", "4k", "60hz");
+    }
+
+    @Test
+    void keepsNonAsciiLetters() {
+        assertThat(Tokenizer.tokenize("Café ÉCRAN")).containsExactly("café", "écran");
+    }
+
+    @Test
+    void emptyAndNullHaveNoTokens() {
+        assertThat(Tokenizer.tokenize(null)).isEmpty();
+        assertThat(Tokenizer.tokenize("  -- ")).isEmpty();
+    }
+}
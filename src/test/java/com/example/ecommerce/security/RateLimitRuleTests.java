@@ -0,0 +1,54 @@
+package com.example.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitRuleTests {
+
+    @Test
+    void parsesMethodPatternAndQuota() {
+        RateLimitRule rule = RateLimitRule.parse(" post  /api/orders/** = 2/1 ");
+
+        assertThat(rule.name()).isEqualTo("post /api/orders/**");
+        assertThat(rule.method()).isEqualTo("POST");
+        assertThat(rule.matches("POST", PathContainer.parsePath("/api/orders/7"))).isTrue();
+        assertThat(rule.matches("GET", PathContainer.parsePath("/api/orders/7"))).isFalse();
+        assertThat(rule.matches("POST", PathContainer.parsePath("/api/products"))).isFalse();
+        assertThat(rule.buckets().tryTake("alice")).isZero();
+        assertThat(rule.buckets().tryTake("alice")).isZero();
+        assertThat(rule.buckets().tryTake("alice")).isPositive();
+    }
+
+    @Test
+    void starMatchesAnyMethod() {
+        RateLimitRule rule = RateLimitRule.parse("* /api/**=10/5");
+
+        assertThat(rule.method()).isNull();
+        assertThat(rule.matches("DELETE", PathContainer.parsePath("/api/products/1"))).isTrue();
+    }
+
+    @Test
+    void upperCasesTheMethodIndependentlyOfTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            assertThat(RateLimitRule.parse("options /api/**=1/1").method()).isEqualTo("OPTIONS");
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        for (String rule : new String[]{"/api/orders=30/2", "POST /api/orders", "POST /api/orders=30", "POST /api/orders=30/2/1"}) {
+            assertThatThrownBy(() -> RateLimitRule.parse(rule))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("should look like POST /api/orders=30/2");
+        }
+    }
+}
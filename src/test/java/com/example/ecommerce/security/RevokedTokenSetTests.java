@@ -0,0 +1,59 @@
+package com.example.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenSetTests {
+
+    private final RevokedTokenSet revoked = new RevokedTokenSet(4, 0.01);
+    private final Instant later = Instant.now().plus(Duration.ofHours(1));
+
+    @Test
+    void addReportsOnlyTheFirstRevocation() {
+        assertThat(revoked.add("a", later)).isTrue();
+        assertThat(revoked.add("a", later)).isFalse();
+        assertThat(revoked.isRevoked("a")).isTrue();
+        assertThat(revoked.isRevoked("b")).isFalse();
+    }
+
+    @Test
+    void expiredTokensAreNotKept() {
+        assertThat(revoked.add("old", Instant.now().minusSeconds(1))).isFalse();
+        assertThat(revoked.isRevoked("old")).isFalse();
+        assertThat(revoked.size()).isZero();
+    }
+
+    @Test
+    void removeUndoesAnAdd() {
+        revoked.add("a", later);
+        revoked.remove("a");
+
+        assertThat(revoked.isRevoked("a")).isFalse();
+        assertThat(revoked.add("a", later)).isTrue();
+    }
+
+    @Test
+    void pruneDropsExpiredIdsAndKeepsTheRest() {
+        revoked.add("short", Instant.now().plusSeconds(1));
+        revoked.add("long", later);
+
+        assertThat(revoked.prune(Instant.now().plusSeconds(2))).isEqualTo(1);
+        assertThat(revoked.isRevoked("short")).isFalse();
+        assertThat(revoked.isRevoked("long")).isTrue();
+    }
+
+    @Test
+    void growsPastItsExpectedSize() {
+        for (int i = 0; i < 100; i++) {
+            revoked.add("token-" + i, later);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(revoked.isRevoked("token-" + i)).isTrue();
+        }
+        assertThat(revoked.size()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ecommerce.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketsTests {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final TokenBuckets buckets = new TokenBuckets(3, 2, clock::get); // 3 tokens, one back every 500ms
+
+    @Test
+    void allowsAFullBurstThenReportsTheWait() {
+        assertThat(buckets.tryTake("alice")).isZero();
+        assertThat(buckets.tryTake("alice")).isZero();
+        assertThat(buckets.tryTake("alice")).isZero();
+
+        assertThat(buckets.tryTake("alice")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        drain("alice");
+
+        clock.addAndGet(INTERVAL - 1);
+        assertThat(buckets.tryTake("alice")).isEqualTo(1);
+        clock.addAndGet(1);
+        assertThat(buckets.tryTake("alice")).isZero();
+        assertThat(buckets.tryTake("alice")).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void refillStopsAtCapacity() {
+        drain("alice");
+
+        clock.addAndGet(10 * INTERVAL);
+
+        assertThat(drain("alice")).isEqualTo(3);
+    }
+
+    @Test
+    void rejectedTakesDoNotUseUpTokens() {
+        drain("alice");
+        buckets.tryTake("alice");
+        buckets.tryTake("alice");
+
+        clock.addAndGet(INTERVAL);
+
+        assertThat(buckets.tryTake("alice")).isZero();
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        drain("alice");
+
+        assertThat(buckets.tryTake("bob")).isZero();
+    }
+
+    @Test
+    void evictsOnlyBucketsThatHaveRefilled() {
+        buckets.tryTake("alice");
+        drain("bob");
+
+        assertThat(buckets.evictIdle()).isZero();
+        clock.addAndGet(INTERVAL);
+        assertThat(buckets.evictIdle()).isEqualTo(1);
+        assertThat(buckets.size()).isEqualTo(1);
+        clock.addAndGet(2 * INTERVAL);
+        assertThat(buckets.evictIdle()).isEqualTo(1);
+        assertThat(buckets.size()).isZero();
+    }
+
+    @Test
+    void evictedBucketStartsFull() {
+        drain("alice");
+        clock.addAndGet(3 * INTERVAL);
+        buckets.evictIdle();
+
+        assertThat(drain("alice")).isEqualTo(3);
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(RateLimitFilter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(INTERVAL)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(1_000_000_000L)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(1_000_000_001L)).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsEmptyOrNonRefillingBuckets() {
+        assertThatThrownBy(() -> new TokenBuckets(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBuckets(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // -----------------------------
+    private int drain(String client) {
+        int taken = 0;
+        while (buckets.tryTake(client) == 0) {
+            taken++;
+        }
+        return taken;
+    }
+}
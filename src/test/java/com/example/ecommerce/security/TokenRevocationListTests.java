@@ -0,0 +1,40 @@
+package com.example.ecommerce.security;
+
+import com.example.ecommerce.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two nodes share REVOKED_TOKENS; the second one has not synced when the same token reaches it
+@SpringBootTest
+class TokenRevocationListTests {
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void tokenIsRevokedOnceAcrossNodes() {
+        JwtPrincipal token = new JwtPrincipal("alice", null, UUID.randomUUID().toString(),
+                Instant.now().plus(Duration.ofDays(1)));
+        TokenRevocationList otherNode = new TokenRevocationList(revokedTokenRepository,
+                new RevokedTokenSet(1_000, 0.01), transactionManager);
+
+        assertThat(revocationList.revoke(token)).isTrue();
+        assertThat(revocationList.revoke(token)).isFalse();
+        assertThat(otherNode.revoke(token)).isFalse();
+        assertThat(otherNode.isRevoked(token)).isTrue();
+    }
+}
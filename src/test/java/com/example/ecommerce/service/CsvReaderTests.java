@@ -0,0 +1,79 @@
+package com.example.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTests {
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertThat(records("name,price\nWidget,9.99\n"))
+                .containsExactly(List.of("name", "price"), List.of("Widget", "9.99"));
+    }
+
+    @Test
+    void keepsCommasInsideQuotes() throws IOException {
+        assertThat(records("\"Widget, large\",9.99\n"))
+                .containsExactly(List.of("Widget, large", "9.99"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        assertThat(records("\"12\"\" \"\"pro\"\" ruler\",\"\"\n"))
+                .containsExactly(List.of("12\" \"pro\" ruler", ""));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotesAndCountsTheirLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"line one\nline two\"\nb,c\n"));
+
+        assertThat(reader.next()).containsExactly("a", "line one\nline two");
+        assertThat(reader.recordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("b", "c");
+        assertThat(reader.recordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void acceptsCrlfLineEndings() throws IOException {
+        assertThat(records("name,price\r\n\"Widget\",9.99\r\n,\r\n"))
+                .containsExactly(List.of("name", "price"), List.of("Widget", "9.99"), List.of("", ""));
+    }
+
+    @Test
+    void readsALastRecordWithoutLineBreak() throws IOException {
+        assertThat(records("a,b\nc,\"d\"")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        assertThatThrownBy(() -> records("a,b\nc,\"d\ne\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field starting on line 2");
+    }
+
+    @Test
+    void quotedValuesReadBackUnchanged() throws IOException {
+        List<String> values = List.of("plain", "a,b", "say \"hi\"", "two\nlines", "cr\r\nlf", "");
+        String line = String.join(",", values.stream().map(CsvReader::quote).toList()) + "\n";
+
+        assertThat(records(line)).containsExactly(values);
+    }
+
+    // -----------------------------
+    private static List<List<String>> records(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
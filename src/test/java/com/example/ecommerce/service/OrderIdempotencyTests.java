@@ -0,0 +1,196 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.OrderRequest;
+import com.example.ecommerce.dto.OrderResponse;
+import com.example.ecommerce.entity.IdempotencyKey;
+import com.example.ecommerce.entity.Order;
+import com.example.ecommerce.metrics.ServiceMetrics;
+import com.example.ecommerce.repository.IdempotencyKeyRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderIdempotencyTests {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AtomicInteger placements = new AtomicInteger();
+
+    @Test
+    void replaysTheFirstResultForTheSameKey() {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofSeconds(10));
+
+        OrderIdempotency.PlacedOrder first = idempotency.placeOnce("alice", "k1", request(1L, 2), this::place);
+        OrderIdempotency.PlacedOrder second = idempotency.placeOnce("alice", "k1", request(1L, 2), this::place);
+
+        assertThat(placements).hasValue(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.order()).isSameAs(first.order());
+    }
+
+    @Test
+    void duplicateWaitsForThePlacementInFlight() throws Exception {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofSeconds(10));
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderIdempotency.PlacedOrder> first = CompletableFuture.supplyAsync(() ->
+                idempotency.placeOnce("alice", "k1", request(1L, 2), () -> {
+                    placing.countDown();
+                    await(release);
+                    return place();
+                }));
+        assertThat(placing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<OrderIdempotency.PlacedOrder> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotency.placeOnce("alice", "k1", request(1L, 2), this::place));
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).order()).isSameAs(first.get(5, TimeUnit.SECONDS).order());
+        assertThat(duplicate.get().replayed()).isTrue();
+        assertThat(placements).hasValue(1);
+    }
+
+    @Test
+    void duplicateGivesUpAfterTheWaitTimeout() throws Exception {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofMillis(50));
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> idempotency.placeOnce("alice", "k1", request(1L, 2), () -> {
+            placing.countDown();
+            await(release);
+            return place();
+        }));
+        try {
+            assertThat(placing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> idempotency.placeOnce("alice", "k1", request(1L, 2), this::place))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectsTheKeyReusedForADifferentOrder() {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofSeconds(10));
+        idempotency.placeOnce("alice", "k1", request(1L, 2), this::place);
+
+        assertThatThrownBy(() -> idempotency.placeOnce("alice", "k1", request(1L, 3), this::place))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(placements).hasValue(1);
+    }
+
+    @Test
+    void forgetsTheKeyWhenPlacementFails() {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> idempotency.placeOnce("alice", "k1", request(1L, 2), () -> {
+            throw new RuntimeException("Insufficient stock");
+        })).hasMessage("Insufficient stock");
+        OrderIdempotency.PlacedOrder retried = idempotency.placeOnce("alice", "k1", request(1L, 2), this::place);
+
+        assertThat(retried.replayed()).isFalse();
+        assertThat(placements).hasValue(1);
+    }
+
+    @Test
+    void keysAreScopedToTheUser() {
+        OrderIdempotency idempotency = idempotency("memory", Duration.ofSeconds(10));
+
+        idempotency.placeOnce("alice", "k1", request(1L, 2), this::place);
+        idempotency.placeOnce("bob", "k1", request(1L, 3), this::place);
+
+        assertThat(placements).hasValue(2);
+        assertThat(OrderIdempotency.scope("a:b", "c")).isNotEqualTo(OrderIdempotency.scope("a", "b:c"));
+    }
+
+    @Test
+    void replaysTheOrderRecordedByAnotherNodeAfterAConstraintViolation() {
+        OrderIdempotency idempotency = idempotency("database", Duration.ofSeconds(10));
+        IdempotencyKey recorded = new IdempotencyKey(OrderIdempotency.scope("alice", "k1"),
+                OrderIdempotency.fingerprint(request(1L, 2)), 42L, LocalDateTime.now());
+        when(idempotencyKeyRepository.findById(anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(recorded));
+        when(orderRepository.findWithItemsByIdIn(any())).thenReturn(List.of(order(42L)));
+
+        OrderIdempotency.PlacedOrder placed = idempotency.placeOnce("alice", "k1", request(1L, 2), () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+
+        assertThat(placed.replayed()).isTrue();
+        assertThat(placed.order().getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void rethrowsAConstraintViolationWithNoRecordedKey() {
+        OrderIdempotency idempotency = idempotency("database", Duration.ofSeconds(10));
+        when(idempotencyKeyRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> idempotency.placeOnce("alice", "k1", request(1L, 2), () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    // -----------------------------
+    private OrderIdempotency idempotency(String store, Duration waitTimeout) {
+        return new OrderIdempotency(idempotencyKeyRepository, orderRepository, new ServiceMetrics(new SimpleMeterRegistry()),
+                mock(PlatformTransactionManager.class), Duration.ofHours(24), 1000, waitTimeout, store);
+    }
+
+    private OrderIdempotency.PlacedOrder place() {
+        OrderResponse order = new OrderResponse();
+        order.setId((long) placements.incrementAndGet());
+        return new OrderIdempotency.PlacedOrder(order, false, false);
+    }
+
+    private static Order order(long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUsername("alice");
+        order.setCurrency("USD");
+        order.setItems(List.of());
+        return order;
+    }
+
+    private static OrderRequest request(long productId, int quantity) {
+        OrderRequest.OrderItemRequest line = new OrderRequest.OrderItemRequest();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(line));
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.OrderRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderLinesTests {
+
+    @Test
+    void mergesDuplicateLinesInProductOrder() {
+        OrderRequest request = request(line(7L, 2), line(3L, 1), line(7L, 5));
+
+        assertThat(OrderService.mergeLines(request)).containsExactly(Map.entry(3L, 1), Map.entry(7L, 7));
+    }
+
+    @Test
+    void rejectsMergedQuantityThatOverflows() {
+        OrderRequest request = request(line(1L, 2_000_000_000), line(1L, 2_000_000_000));
+
+        assertThatThrownBy(() -> OrderService.mergeLines(request))
+                .hasMessage("Quantity too large for product: 1");
+    }
+
+    @Test
+    void rejectsNonPositiveQuantity() {
+        assertThatThrownBy(() -> OrderService.mergeLines(request(line(1L, 0))))
+                .hasMessage("Each item needs a product id and a positive quantity");
+    }
+
+    private static OrderRequest request(OrderRequest.OrderItemRequest... lines) {
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(lines));
+        return request;
+    }
+
+    private static OrderRequest.OrderItemRequest line(Long productId, int quantity) {
+        OrderRequest.OrderItemRequest line = new OrderRequest.OrderItemRequest();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.ProductImportReport;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Role;
+import com.example.ecommerce.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class ProductBulkServiceTests {
+
+    private static final Authentication ADMIN = new UsernamePasswordAuthenticationToken("admin", null,
+            List.of(new SimpleGrantedAuthority(Role.ROLE_ADMIN.name())));
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private String category;
+
+    @BeforeEach
+    void createCategory() {
+        Category created = new Category();
+        created.setName("bulk-" + UUID.randomUUID());
+        category = categoryRepository.save(created).getName();
+    }
+
+    @Test
+    void reportsBadNdjsonLinesAndImportsTheRest() throws IOException {
+        String body = String.join("\n",
+                row("first"),
+                "null",
+                "{\"name\":",
+                "",
+                "[1,2]",
+                row("second"));
+
+        ProductImportReport report = importNdjson(body);
+
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors())
+                .extracting(ProductImportReport.RowError::getLine, ProductImportReport.RowError::getMessage)
+                .first().isEqualTo(tuple(2L, "Expected a JSON object"));
+        assertThat(report.getErrors())
+                .extracting(ProductImportReport.RowError::getLine)
+                .containsExactly(2L, 3L, 5L);
+    }
+
+    @Test
+    void reportsInvalidRows() throws IOException {
+        ProductImportReport report = importNdjson("{\"name\":\"\",\"price\":1,\"stock\":1,\"category\":\"" + category + "\"}");
+
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getErrors())
+                .extracting(ProductImportReport.RowError::getLine, ProductImportReport.RowError::getMessage)
+                .containsExactly(tuple(1L, "Name is required"));
+    }
+
+    // -----------------------------
+    private ProductImportReport importNdjson(String body) throws IOException {
+        return productBulkService.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                ProductBulkService.NDJSON, ADMIN);
+    }
+
+    private String row(String name) {
+        return "{\"name\":\"" + name + "\",\"price\":9.99,\"stock\":3,\"category\":\"" + category + "\"}";
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.ProductResponse;
+import com.example.ecommerce.entity.Category;
+import com.example.ecommerce.entity.Product;
+import com.example.ecommerce.repository.CategoryRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the listing read path against N+1 category loads
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.orders.events.relay-enabled=false" // its polling would show up in the shared statistics
+})
+@Transactional
+class ProductServiceQueryCountTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Category firstCategory;
+
+    @BeforeEach
+    void seedCatalog() {
+        for (int c = 0; c < 3; c++) {
+            Category category = new Category();
+            category.setName("query-count-" + c);
+            category = categoryRepository.save(category);
+            if (firstCategory == null) {
+                firstCategory = category;
+            }
+            for (int p = 0; p < 5; p++) {
+                Product product = new Product();
+                product.setName("product-" + c + "-" + p);
+                product.setPriceMinor(1_000 + 100 * p);
+                product.setCurrency("USD");
+                product.setStock(100);
+                product.setCategory(category);
+                productRepository.save(product);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingAPageIsOneStatement() {
+        List<ProductResponse> items = productService.listProducts(null, 100).getItems();
+
+        assertThat(items).hasSizeGreaterThanOrEqualTo(15);
+        assertThat(items).allSatisfy(p -> assertThat(p.getCategoryName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingByCategoryIsOneStatement() {
+        List<ProductResponse> items = productService.getProductsByCategory(firstCategory.getId());
+
+        assertThat(items).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamingTheCatalogIsOneStatement() {
+        List<ProductResponse> items = new ArrayList<>();
+        productService.streamAllProducts(items::add);
+
+        assertThat(items).hasSizeGreaterThanOrEqualTo(15);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}